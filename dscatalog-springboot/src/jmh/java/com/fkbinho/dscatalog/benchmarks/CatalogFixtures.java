@@ -0,0 +1,44 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic catalog shaped like the seed data: short names, a paragraph of description,
+ * an image url and a few categories per product taken from a small shared set.
+ */
+public class CatalogFixtures {
+
+    private static final String DESCRIPTION = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, "
+            + "sed do eiusmod tempor incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, "
+            + "quis nostrud exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat.";
+
+    public static List<Category> categories(int count) {
+        List<Category> list = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            list.add(new Category(i, "Category " + i));
+        }
+        return list;
+    }
+
+    public static List<Product> products(int count, List<Category> categories, int categoriesPerProduct) {
+        Random random = new Random(42);
+        Instant date = Instant.parse("2020-07-13T20:50:07.12345Z");
+        List<Product> list = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            Product product = new Product(i, "Product " + i, DESCRIPTION, 100.0 + random.nextInt(5000),
+                    "https://raw.githubusercontent.com/devsuperior/dscatalog-resources/master/backend/img/" + i + "-big.jpg",
+                    date.plusSeconds(i));
+            for (int j = 0; j < categoriesPerProduct; j++) {
+                product.getCategories().add(categories.get(random.nextInt(categories.size())));
+            }
+            list.add(product);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,69 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning entities into response DTOs, per page of products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"12", "100", "1000"})
+    private int pageSize;
+
+    @Param({"1", "3"})
+    private int categoriesPerProduct;
+
+    private List<Category> categories;
+    private Page<Product> page;
+
+    @Setup
+    public void setUp() {
+        categories = CatalogFixtures.categories(20);
+        List<Product> products = CatalogFixtures.products(pageSize, categories, categoriesPerProduct);
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public Page<ProductDTO> pageMapWithoutCategories() {
+        return page.map(ProductDTO::new);
+    }
+
+    @Benchmark
+    public Page<ProductDTO> pageMapWithCategories() {
+        return page.map(x -> new ProductDTO(x, x.getCategories()));
+    }
+
+    @Benchmark
+    public List<ProductDTO> loopWithCategories() {
+        List<ProductDTO> list = new ArrayList<>(page.getNumberOfElements());
+        for (Product product : page.getContent()) {
+            list.add(new ProductDTO(product, product.getCategories()));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public void categoryDto(Blackhole blackhole) {
+        for (Category category : categories) {
+            blackhole.consume(new CategoryDTO(category));
+        }
+    }
+}
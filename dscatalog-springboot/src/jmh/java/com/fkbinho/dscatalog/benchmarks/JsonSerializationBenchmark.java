@@ -0,0 +1,66 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a Page&lt;ProductDTO&gt; response body, with the ObjectMapper configured the way
+ * Spring Boot configures it for the MVC message converters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"12", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter pageWriter;
+    private Page<ProductDTO> page;
+    private List<ProductDTO> content;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pageWriter = objectMapper.writerFor(PageImpl.class);
+        List<Product> products = CatalogFixtures.products(pageSize, CatalogFixtures.categories(20), 2);
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000)
+                .map(x -> new ProductDTO(x, x.getCategories()));
+        content = page.getContent();
+    }
+
+    @Benchmark
+    public byte[] pageWithObjectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageWithPreparedWriter() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] contentOnly() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(content);
+    }
+
+    @Benchmark
+    public String pageAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+}
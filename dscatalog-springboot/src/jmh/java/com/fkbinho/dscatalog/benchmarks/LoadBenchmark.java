@@ -0,0 +1,344 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fkbinho.dscatalog.DscatalogApplication;
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.repositories.CategoryRepository;
+import com.fkbinho.dscatalog.services.ProductBatchService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * End-to-end load test: boots the application on a random port against an in-memory H2 database,
+ * seeds a synthetic catalog and drives a weighted mix of reads and writes from concurrent clients.
+ * Latency percentiles and throughput per operation are written as JSON so two builds can be diffed.
+ * <p>
+ * Run with: ./mvnw -P benchmark test-compile exec:exec@load -Dload.clients=64 -Dload.duration=60
+ */
+public class LoadBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    enum Operation {
+        PRODUCT_LIST, PRODUCT_FIND, PRODUCT_INSERT, PRODUCT_UPDATE, PRODUCT_DELETE,
+        CATEGORY_LIST, CATEGORY_FIND, CATEGORY_INSERT, CATEGORY_UPDATE, CATEGORY_DELETE
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final int productCount;
+    private final List<Long> categoryIds;
+    private final Operation[] mix;
+
+    public LoadBenchmark(String baseUrl, int productCount, List<Long> categoryIds, Operation[] mix) {
+        this.baseUrl = baseUrl;
+        this.productCount = productCount;
+        this.categoryIds = categoryIds;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> extraProperties = Arrays.stream(System.getProperty("load.properties", "").split(","))
+                .filter(s -> !s.isBlank())
+                .toList();
+        Map<String, Object> json = execute("loadbench", extraProperties);
+        writeReport(json, new File(System.getProperty("load.report", "target/load-report.json")));
+    }
+
+    /**
+     * Boots a fresh application with its own in-memory database, runs warmup and measurement
+     * with the load.* system properties and returns the report.
+     */
+    static Map<String, Object> execute(String database, List<String> extraProperties) throws Exception {
+        int clients = Integer.getInteger("load.clients", 32);
+        int warmup = Integer.getInteger("load.warmup", 10);
+        int duration = Integer.getInteger("load.duration", 30);
+        int products = Integer.getInteger("load.products", 10_000);
+        int categories = Integer.getInteger("load.categories", 20);
+        String mixSpec = System.getProperty("load.mix", "PRODUCT_LIST=30,PRODUCT_FIND=30,PRODUCT_INSERT=5,"
+                + "PRODUCT_UPDATE=5,PRODUCT_DELETE=5,CATEGORY_LIST=10,CATEGORY_FIND=10,CATEGORY_INSERT=2,"
+                + "CATEGORY_UPDATE=2,CATEGORY_DELETE=1");
+
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.profiles.active=test",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false"));
+        properties.addAll(extraProperties);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DscatalogApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run()) {
+
+            List<Long> categoryIds = seed(context, products, categories);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadBenchmark benchmark = new LoadBenchmark("http://localhost:" + port, products, categoryIds,
+                    parseMix(mixSpec));
+
+            benchmark.run(clients, warmup);
+            Map<Operation, LatencySamples> results = benchmark.run(clients, duration);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("timestamp", Instant.now().toString());
+            json.put("javaVersion", System.getProperty("java.version"));
+            json.put("config", Map.of("clients", clients, "warmupSeconds", warmup, "durationSeconds", duration,
+                    "products", products, "categories", categories, "mix", mixSpec,
+                    "properties", String.join(",", properties)));
+            json.put("total", summary(LatencySamples.merge(results.values()), duration));
+            Map<String, Object> operations = new LinkedHashMap<>();
+            results.forEach((op, samples) -> operations.put(op.name(), summary(samples, duration)));
+            json.put("operations", operations);
+            return json;
+        }
+    }
+
+    static void writeReport(Map<String, Object> json, File report) throws Exception {
+        report.getAbsoluteFile().getParentFile().mkdirs();
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(report, json);
+        System.out.println(mapper.writeValueAsString(json));
+        System.out.println("Report written to " + report.getAbsolutePath());
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context, int products, int categories) {
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Category> newCategories = new ArrayList<>();
+        for (int i = 1; i <= categories; i++) {
+            newCategories.add(new Category(null, "Load category " + i));
+        }
+        categoryRepository.saveAll(newCategories);
+        List<Long> categoryIds = categoryRepository.findAll().stream().map(Category::getId).toList();
+
+        Random random = new Random(42);
+        Iterator<ProductDTO> items = IntStream.rangeClosed(1, products).mapToObj(i -> {
+            ProductDTO dto = new ProductDTO(null, "Load product " + i, "Synthetic product number " + i,
+                    10.0 + random.nextInt(5000), "https://img.com/" + i + ".png", Instant.now());
+            dto.getCategories().add(new CategoryDTO(categoryIds.get(random.nextInt(categoryIds.size())), null));
+            return dto;
+        }).iterator();
+        context.getBean(ProductBatchService.class).insertAll(items);
+        return categoryIds;
+    }
+
+    static Operation[] parseMix(String spec) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation op = Operation.valueOf(parts[0].trim());
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++) {
+                weighted.add(op);
+            }
+        }
+        return weighted.toArray(Operation[]::new);
+    }
+
+    private Map<Operation, LatencySamples> run(int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Map<Operation, LatencySamples>>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> new Client().run(deadline)));
+            }
+            Map<Operation, LatencySamples> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencySamples>> future : futures) {
+                future.get().forEach((op, samples) ->
+                        merged.computeIfAbsent(op, k -> new LatencySamples()).addAll(samples));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, Object> summary(LatencySamples samples, int seconds) {
+        samples.sort();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", samples.size());
+        map.put("errors", samples.errors());
+        map.put("requestsPerSecond", (double) samples.size() / seconds);
+        map.put("p50Ms", samples.percentileMillis(50.0));
+        map.put("p99Ms", samples.percentileMillis(99.0));
+        map.put("p999Ms", samples.percentileMillis(99.9));
+        map.put("maxMs", samples.percentileMillis(100.0));
+        return map;
+    }
+
+    /**
+     * One simulated client. Deletes and category updates only target rows this client inserted,
+     * so concurrent clients never fight over the same seeded rows.
+     */
+    private class Client {
+
+        private final Map<Operation, LatencySamples> samples = new EnumMap<>(Operation.class);
+        private final Deque<Long> insertedProducts = new ArrayDeque<>();
+        private final Deque<Long> insertedCategories = new ArrayDeque<>();
+
+        Map<Operation, LatencySamples> run(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Operation op = mix[random.nextInt(mix.length)];
+                HttpRequest request = request(op, random);
+                if (request == null) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                int status;
+                String body;
+                try {
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    status = response.statusCode();
+                    body = response.body();
+                } catch (Exception e) {
+                    status = -1;
+                    body = null;
+                }
+                long elapsed = System.nanoTime() - start;
+                samples.computeIfAbsent(op, k -> new LatencySamples()).add(elapsed, status < 200 || status >= 300);
+                if (status == 201) {
+                    remember(op, body);
+                }
+            }
+            return samples;
+        }
+
+        private HttpRequest request(Operation op, ThreadLocalRandom random) {
+            long productId = 1 + random.nextInt(productCount);
+            long categoryId = categoryIds.get(random.nextInt(categoryIds.size()));
+            return switch (op) {
+                case PRODUCT_LIST -> get("/products?page=" + random.nextInt(productCount / 12 + 1) + "&size=12");
+                case PRODUCT_FIND -> get("/products/" + productId);
+                case PRODUCT_INSERT -> send("POST", "/products", productJson(categoryId, random));
+                case PRODUCT_UPDATE -> send("PUT", "/products/" + productId, productJson(categoryId, random));
+                case PRODUCT_DELETE -> insertedProducts.isEmpty() ? null
+                        : send("DELETE", "/products/" + insertedProducts.poll(), null);
+                case CATEGORY_LIST -> get("/categories?page=0&size=12");
+                case CATEGORY_FIND -> get("/categories/" + categoryId);
+                case CATEGORY_INSERT -> send("POST", "/categories", categoryJson(random));
+                case CATEGORY_UPDATE -> insertedCategories.isEmpty() ? null
+                        : send("PUT", "/categories/" + insertedCategories.peek(), categoryJson(random));
+                case CATEGORY_DELETE -> insertedCategories.isEmpty() ? null
+                        : send("DELETE", "/categories/" + insertedCategories.poll(), null);
+            };
+        }
+
+        private void remember(Operation op, String body) {
+            Matcher matcher = ID.matcher(body);
+            if (!matcher.find()) {
+                return;
+            }
+            Long id = Long.valueOf(matcher.group(1));
+            if (op == Operation.PRODUCT_INSERT) {
+                insertedProducts.add(id);
+            } else if (op == Operation.CATEGORY_INSERT) {
+                insertedCategories.add(id);
+            }
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+        }
+
+        private HttpRequest send(String method, String path, String json) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Accept", "application/json");
+            if (json == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        private String productJson(long categoryId, ThreadLocalRandom random) {
+            int n = random.nextInt(1_000_000);
+            return "{\"name\":\"Load product " + n + "\",\"description\":\"Synthetic product\","
+                    + "\"price\":" + (10 + random.nextInt(5000)) + ".0,"
+                    + "\"imgUrl\":\"https://img.com/" + n + ".png\",\"date\":\"2020-07-13T20:50:07Z\","
+                    + "\"categories\":[{\"id\":" + categoryId + "}]}";
+        }
+
+        private String categoryJson(ThreadLocalRandom random) {
+            return "{\"name\":\"Load category " + random.nextInt(1_000_000) + "\"}";
+        }
+    }
+
+    /**
+     * Raw latencies in nanoseconds, kept per client and merged at the end of a run.
+     */
+    static class LatencySamples {
+
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long nanos, boolean error) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addAll(LatencySamples other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        static LatencySamples merge(Collection<LatencySamples> all) {
+            LatencySamples merged = new LatencySamples();
+            all.forEach(merged::addAll);
+            return merged;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        int size() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return values[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+        }
+    }
+}
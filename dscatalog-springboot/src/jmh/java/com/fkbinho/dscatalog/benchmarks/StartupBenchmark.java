@@ -0,0 +1,154 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request of the packaged application: from launching a fresh JVM until
+ * GET /products answers 200. Today's startup is compared with the AOT-processed bean definitions,
+ * with and without the AppCDS archive from the startup profile's training run. Variants are
+ * interleaved run by run so machine noise spreads evenly over them.
+ * <p>
+ * Run with: ./mvnw -P startup,benchmark package exec:exec@startup -DskipTests -Dstartup.runs=10
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    enum Variant {
+        BASELINE, AOT, AOT_CDS
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final File dir;
+    private final File jar;
+    private final File archive;
+
+    public StartupBenchmark(File dir, File jar, File archive) {
+        this.dir = dir;
+        this.jar = jar;
+        this.archive = archive;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        File dir = new File(System.getProperty("startup.dir", "target/startup"));
+        File jar = new File(dir, System.getProperty("startup.jar", "dscatalog-0.0.1-SNAPSHOT.jar"));
+        File archive = new File(dir, "application.jsa");
+        if (!jar.isFile() || !archive.isFile()) {
+            throw new IllegalStateException("No extracted jar and CDS archive in " + dir.getAbsolutePath()
+                    + ", package with -P startup first");
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(dir, jar, archive);
+
+        Map<Variant, long[]> samples = new EnumMap<>(Variant.class);
+        for (Variant variant : Variant.values()) {
+            samples.put(variant, new long[runs]);
+        }
+        for (int run = 0; run < runs; run++) {
+            for (Variant variant : Variant.values()) {
+                samples.get(variant)[run] = benchmark.timeToFirstRequest(variant);
+            }
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timestamp", Instant.now().toString());
+        json.put("javaVersion", System.getProperty("java.version"));
+        json.put("config", Map.of("runs", runs, "jar", jar.getAbsolutePath()));
+        Map<String, Object> variants = new LinkedHashMap<>();
+        samples.forEach((variant, nanos) -> variants.put(variant.name(), summary(nanos)));
+        json.put("variants", variants);
+        json.put("speedup", median(samples.get(Variant.BASELINE)) / median(samples.get(Variant.AOT_CDS)));
+        LoadBenchmark.writeReport(json, new File(System.getProperty("load.report", "target/startup-report.json")));
+    }
+
+    private long timeToFirstRequest(Variant variant) throws Exception {
+        int port = freePort();
+        File log = new File(dir, "startup-" + variant.name().toLowerCase() + ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products"))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(variant, port))
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant + " exited with " + process.exitValue()
+                            + ", see " + log.getAbsolutePath());
+                }
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return System.nanoTime() - start;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant + " did not answer within " + TIMEOUT
+                    + ", see " + log.getAbsolutePath());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(Variant variant, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        if (variant == Variant.AOT_CDS) {
+            command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        if (variant != Variant.BASELINE) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, Object> summary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("runs", sorted.length);
+        map.put("minMs", sorted[0] / 1_000_000.0);
+        map.put("p50Ms", median(sorted) / 1_000_000.0);
+        map.put("maxMs", sorted[sorted.length - 1] / 1_000_000.0);
+        map.put("samplesMs", Arrays.stream(nanos).mapToDouble(n -> n / 1_000_000.0).toArray());
+        return map;
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+}
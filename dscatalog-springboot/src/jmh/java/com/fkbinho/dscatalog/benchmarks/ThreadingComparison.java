@@ -0,0 +1,35 @@
+package com.fkbinho.dscatalog.benchmarks;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same {@link LoadBenchmark} workload with platform threads and then with virtual threads,
+ * each against a fresh application and database, and reports both plus the throughput ratio.
+ * Use more clients than Tomcat's 200 worker threads for the difference to show.
+ * <p>
+ * Run with: ./mvnw -P benchmark test-compile exec:exec@threading -Dload.clients=800
+ */
+public class ThreadingComparison {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> platform = LoadBenchmark.execute("platform",
+                List.of("spring.threads.virtual.enabled=false"));
+        Map<String, Object> virtual = LoadBenchmark.execute("virtual",
+                List.of("spring.threads.virtual.enabled=true"));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("platform", platform);
+        json.put("virtual", virtual);
+        json.put("throughputRatio", requestsPerSecond(virtual) / requestsPerSecond(platform));
+        LoadBenchmark.writeReport(json, new File(System.getProperty("load.report", "target/threading-report.json")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double requestsPerSecond(Map<String, Object> report) {
+        Map<String, Object> total = (Map<String, Object>) report.get("total");
+        return (Double) total.get("requestsPerSecond");
+    }
+}
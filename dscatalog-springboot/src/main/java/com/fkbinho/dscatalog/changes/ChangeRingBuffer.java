@@ -0,0 +1,101 @@
+package com.fkbinho.dscatalog.changes;
+
+import com.fkbinho.dscatalog.dto.ChangeEventDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory log of change events. Every event gets the next offset; once the buffer is
+ * full the oldest event is overwritten. Writers never block, readers pull from their own offset
+ * and learn through {@link OffsetOutOfRangeException} that they fell behind what is retained.
+ * Offsets start at 0 with every buffer, so events carry them as {@code <epoch>:<offset>}.
+ */
+public class ChangeRingBuffer {
+
+    private final ChangeEventDTO[] slots;
+    private final String epoch;
+    private long nextOffset;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    public ChangeRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        slots = new ChangeEventDTO[capacity];
+        epoch = Long.toString(System.currentTimeMillis());
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public String position(long offset) {
+        return epoch + ":" + offset;
+    }
+
+    public long append(String type, Long id, Long version, String operation) {
+        lock.lock();
+        try {
+            long offset = nextOffset++;
+            slots[(int) (offset % slots.length)] = new ChangeEventDTO(position(offset), type, id, version, operation);
+            appended.signalAll();
+            return offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long nextOffset() {
+        lock.lock();
+        try {
+            return nextOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long oldestOffset() {
+        lock.lock();
+        try {
+            return Math.max(0, nextOffset - slots.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code max} events starting at offset {@code from}, waiting at most {@code timeoutMillis}
+     * for the first one. Returns an empty list on timeout.
+     */
+    public List<ChangeEventDTO> read(long from, int max, long timeoutMillis) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (from == nextOffset) {
+                if (nanos <= 0) {
+                    return List.of();
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            long oldest = Math.max(0, nextOffset - slots.length);
+            if (from < oldest || from > nextOffset) {
+                throw new OffsetOutOfRangeException("Offset " + from + " is outside the retained range ["
+                        + oldest + ", " + nextOffset + "]");
+            }
+            int count = (int) Math.min(max, nextOffset - from);
+            List<ChangeEventDTO> list = new ArrayList<>(count);
+            for (long offset = from; offset < from + count; offset++) {
+                list.add(slots[(int) (offset % slots.length)]);
+            }
+            return list;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
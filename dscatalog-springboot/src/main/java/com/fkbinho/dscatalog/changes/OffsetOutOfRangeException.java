@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.changes;
+
+public class OffsetOutOfRangeException extends RuntimeException {
+
+    public OffsetOutOfRangeException(String msg) {
+        super(msg);
+    }
+}
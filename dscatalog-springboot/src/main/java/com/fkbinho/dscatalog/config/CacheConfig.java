@@ -0,0 +1,47 @@
+package com.fkbinho.dscatalog.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_PAGES = "categoryPages";
+
+    // Hibernate second-level cache regions, configured in application.conf
+    public static final String L2_CATEGORY = "category";
+    public static final String L2_PRODUCT_CATEGORIES = "product.categories";
+    public static final String L2_CATEGORY_QUERIES = "category.queries";
+
+    @Value("${dscatalog.category-cache.max-size}")
+    private long maxSize;
+
+    @Value("${dscatalog.category-cache.ttl}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        // Caffeine evicts with W-TinyLFU once maximumSize is reached
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        caffeine.setCacheNames(List.of(CATEGORIES, CATEGORY_PAGES));
+        caffeine.setAllowNullValues(false);
+
+        // Evictions made inside a transaction only run after it commits
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
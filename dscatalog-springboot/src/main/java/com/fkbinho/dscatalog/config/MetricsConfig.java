@@ -0,0 +1,21 @@
+package com.fkbinho.dscatalog.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timer for every public method of the classes annotated with @Timed(SERVICE_TIMER),
+     * tagged with class and method.
+     */
+    public static final String SERVICE_TIMER = "dscatalog.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
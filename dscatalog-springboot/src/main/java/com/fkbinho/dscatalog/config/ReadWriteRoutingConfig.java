@@ -0,0 +1,70 @@
+package com.fkbinho.dscatalog.config;
+
+import com.fkbinho.dscatalog.routing.PrimaryPinFilter;
+import com.fkbinho.dscatalog.routing.ReadWriteRoutingDataSource;
+import com.fkbinho.dscatalog.routing.ReplicaDataSource;
+import com.fkbinho.dscatalog.routing.RoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active with dscatalog.datasource.routing.enabled=true. Replaces the auto-configured DataSource
+ * with one that sends read-only transactions to the dscatalog.datasource.routing.replicas pools
+ * and everything else to the spring.datasource primary. The pools are not beans themselves, so
+ * the application still sees exactly one DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "dscatalog.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties, RoutingProperties routing,
+            Environment environment, @Value("${dscatalog.datasource.max-concurrency:0}") int maxConcurrency) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        // On virtual threads only the primary pool is capped; replica pools keep to their own size
+        DataSource writes = primary;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            writes = VirtualThreadConfig.limit(primary, maxConcurrency);
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            RoutingProperties.Replica replica = routing.getReplicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(routing.getMaxPoolSize());
+            pool.setConnectionTimeout(routing.getConnectionTimeout().toMillis());
+            // A replica that is down at startup is skipped by routing, it must not stop the application
+            pool.setInitializationFailTimeout(-1);
+            replicas.add(pool);
+        }
+        return new ReadWriteRoutingDataSource(primary, writes,
+                new ReplicaDataSource(writes, replicas, routing.getHealthCheckInterval()));
+    }
+
+    @Bean
+    public PrimaryPinFilter primaryPinFilter(RoutingProperties routing) {
+        return new PrimaryPinFilter(routing.getPinAfterWrite());
+    }
+}
@@ -0,0 +1,48 @@
+package com.fkbinho.dscatalog.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Active with spring.threads.virtual.enabled=true. Spring Boot then runs Tomcat requests, the
+ * applicationTaskExecutor (async MVC responses, @Async) and scheduling on virtual threads; this
+ * adds the cap that keeps database concurrency at the size of the primary connection pool. With
+ * routing enabled, ReadWriteRoutingConfig puts the same cap in front of its primary pool instead.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "dscatalog.datasource.routing", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    public ConcurrencyLimitedDataSource dataSource(DataSourceProperties properties, Environment environment,
+            @Value("${dscatalog.datasource.max-concurrency:0}") int maxConcurrency) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return limit(pool, maxConcurrency);
+    }
+
+    /**
+     * Caps {@code pool} at {@code maxConcurrency} permits, or at its maximum pool size when that is 0,
+     * waiting at most its connection timeout for one.
+     */
+    public static ConcurrencyLimitedDataSource limit(HikariDataSource pool, int maxConcurrency) {
+        int limit = maxConcurrency;
+        if (limit <= 0) {
+            limit = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+        }
+        return new ConcurrencyLimitedDataSource(pool, limit, pool.getConnectionTimeout());
+    }
+}
@@ -0,0 +1,46 @@
+package com.fkbinho.dscatalog.dto;
+
+public class BatchItemResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private Integer index;
+    private Long id;
+    private String status;
+    private String message;
+
+    public BatchItemResultDTO() {
+    }
+
+    public BatchItemResultDTO(Integer index, Long id, String status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchItemResultDTO created(int index, Long id) {
+        return new BatchItemResultDTO(index, id, CREATED, null);
+    }
+
+    public static BatchItemResultDTO failed(int index, String message) {
+        return new BatchItemResultDTO(index, null, FAILED, message);
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResultDTO {
+
+    private Integer created = 0;
+    private Integer failed = 0;
+
+    private List<BatchItemResultDTO> items = new ArrayList<>();
+
+    public BatchResultDTO() {
+    }
+
+    public void addItem(BatchItemResultDTO item) {
+        if (BatchItemResultDTO.CREATED.equals(item.getStatus())) {
+            created++;
+        } else {
+            failed++;
+        }
+        items.add(item);
+    }
+
+    public Integer getCreated() {
+        return created;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResultDTO> getItems() {
+        return items;
+    }
+}
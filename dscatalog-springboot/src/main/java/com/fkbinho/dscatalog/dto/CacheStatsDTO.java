@@ -0,0 +1,47 @@
+package com.fkbinho.dscatalog.dto;
+
+public class CacheStatsDTO {
+
+    private String name;
+    private Long size;
+    private Long hitCount;
+    private Long missCount;
+    private Long evictionCount;
+    private Double hitRate;
+
+    public CacheStatsDTO() {
+    }
+
+    public CacheStatsDTO(String name, Long size, Long hitCount, Long missCount, Long evictionCount, Double hitRate) {
+        this.name = name;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.hitRate = hitRate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public Long getHitCount() {
+        return hitCount;
+    }
+
+    public Long getMissCount() {
+        return missCount;
+    }
+
+    public Long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public Double getHitRate() {
+        return hitRate;
+    }
+}
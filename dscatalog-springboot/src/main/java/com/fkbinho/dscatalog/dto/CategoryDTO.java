@@ -5,6 +5,7 @@ import com.fkbinho.dscatalog.entities.Category;
 public class CategoryDTO {
 
     private Long id;
+    private Long version;
     private String name;
 
     public CategoryDTO() {
@@ -17,6 +18,7 @@ public class CategoryDTO {
 
     public CategoryDTO(Category entity) {
         id = entity.getId();
+        version = entity.getVersion();
         name = entity.getName();
     }
 
@@ -28,6 +30,14 @@ public class CategoryDTO {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
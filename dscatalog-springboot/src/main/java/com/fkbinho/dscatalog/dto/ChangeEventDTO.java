@@ -0,0 +1,41 @@
+package com.fkbinho.dscatalog.dto;
+
+public class ChangeEventDTO {
+
+    private String offset;
+    private String type;
+    private Long id;
+    private Long version;
+    private String operation;
+
+    public ChangeEventDTO() {
+    }
+
+    public ChangeEventDTO(String offset, String type, Long id, Long version, String operation) {
+        this.offset = offset;
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.operation = operation;
+    }
+
+    public String getOffset() {
+        return offset;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
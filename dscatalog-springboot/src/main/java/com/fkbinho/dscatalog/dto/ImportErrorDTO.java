@@ -0,0 +1,23 @@
+package com.fkbinho.dscatalog.dto;
+
+public class ImportErrorDTO {
+
+    private Long row;
+    private String message;
+
+    public ImportErrorDTO() {
+    }
+
+    public ImportErrorDTO(Long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public Long getRow() {
+        return row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReportDTO {
+
+    private String importId;
+    private Long skipped = 0L;
+    private Long created = 0L;
+    private Long failed = 0L;
+    private Long committedRows = 0L;
+    private Boolean completed = false;
+    private Boolean errorsTruncated = false;
+
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    private int maxErrors;
+
+    public ImportReportDTO() {
+    }
+
+    public ImportReportDTO(String importId, Long committedRows, int maxErrors) {
+        this.importId = importId;
+        this.committedRows = committedRows;
+        this.maxErrors = maxErrors;
+    }
+
+    public void addSkipped() {
+        skipped++;
+    }
+
+    public void addCreated() {
+        created++;
+    }
+
+    public void addError(long row, String message) {
+        failed++;
+        addMessage(row, message);
+    }
+
+    // Keeps the report bounded: past maxErrors only the counters grow
+    public void addMessage(long row, String message) {
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportErrorDTO(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void setCommittedRows(Long committedRows) {
+        this.committedRows = committedRows;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public Long getSkipped() {
+        return skipped;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public Long getCommittedRows() {
+        return committedRows;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public Boolean getErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+}
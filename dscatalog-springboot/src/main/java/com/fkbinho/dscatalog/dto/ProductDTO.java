@@ -2,6 +2,9 @@ package com.fkbinho.dscatalog.dto;
 
 import com.fkbinho.dscatalog.entities.Category;
 import com.fkbinho.dscatalog.entities.Product;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -11,8 +14,14 @@ import java.util.Set;
 public class ProductDTO {
 
     private Long id;
+    private Long version;
+
+    @NotBlank(message = "Name is required")
     private String name;
     private String description;
+
+    @NotNull(message = "Price is required")
+    @PositiveOrZero(message = "Price must not be negative")
     private Double price;
     private String imgUrl;
     private Instant date;
@@ -33,6 +42,7 @@ public class ProductDTO {
 
     public ProductDTO(Product entity) {
         this.id = entity.getId();
+        this.version = entity.getVersion();
         this.name = entity.getName();
         this.description = entity.getDescription();
         this.price = entity.getPrice();
@@ -53,6 +63,14 @@ public class ProductDTO {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,74 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional filters of GET /products, bound from the query string. Every filter that is set must match.
+ */
+public class ProductFilterDTO {
+
+    private Double minPrice;
+    private Double maxPrice;
+    private Instant from;
+    private Instant to;
+    private String name;
+    private List<Long> categoryId = new ArrayList<>();
+
+    public ProductFilterDTO() {
+    }
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && from == null && to == null
+                && (name == null || name.isBlank()) && (categoryId == null || categoryId.isEmpty());
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Long> getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(List<Long> categoryId) {
+        this.categoryId = categoryId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fkbinho.dscatalog.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Body of PATCH /products/{id}. Fields left null keep their current value; categories, when
+ * present, replace the whole set.
+ */
+public class ProductPatchDTO {
+
+    private String name;
+    private String description;
+
+    @PositiveOrZero(message = "Price must not be negative")
+    private Double price;
+    private String imgUrl;
+    private Instant date;
+
+    private List<CategoryDTO> categories;
+
+    public ProductPatchDTO() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public void setImgUrl(String imgUrl) {
+        this.imgUrl = imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public void setDate(Instant date) {
+        this.date = date;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryDTO> categories) {
+        this.categories = categories;
+    }
+}
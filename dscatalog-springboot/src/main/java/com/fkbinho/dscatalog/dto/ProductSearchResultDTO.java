@@ -0,0 +1,41 @@
+package com.fkbinho.dscatalog.dto;
+
+public class ProductSearchResultDTO {
+
+    private Long id;
+    private String name;
+    private Double price;
+    private String imgUrl;
+    private Double score;
+
+    public ProductSearchResultDTO() {
+    }
+
+    public ProductSearchResultDTO(Long id, String name, Double price, String imgUrl, Double score) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imgUrl = imgUrl;
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.time.Instant;
+
+/**
+ * Listing view of a product, selected column by column so the description is never read
+ * and no entity enters the persistence context.
+ */
+public class ProductSummaryDTO {
+
+    private Long id;
+    private String name;
+    private Double price;
+    private String imgUrl;
+    private Instant date;
+
+    public ProductSummaryDTO() {
+    }
+
+    public ProductSummaryDTO(Long id, String name, Double price, String imgUrl, Instant date) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imgUrl = imgUrl;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ProductVersionDTO {
+
+    private Long version;
+    private SortedMap<Long, Long> categoryVersions = new TreeMap<>();
+
+    public ProductVersionDTO() {
+    }
+
+    public ProductVersionDTO(Long version) {
+        this.version = version;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public SortedMap<Long, Long> getCategoryVersions() {
+        return categoryVersions;
+    }
+}
@@ -0,0 +1,50 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SliceDTO<T> {
+
+    private List<T> content = new ArrayList<>();
+    private Integer number;
+    private Integer size;
+    private Boolean hasNext;
+    private Long totalElements;
+    private Boolean totalExact;
+
+    public SliceDTO() {
+    }
+
+    public SliceDTO(List<T> content, Integer number, Integer size, Boolean hasNext, Long totalElements, Boolean totalExact) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.totalElements = totalElements;
+        this.totalExact = totalExact;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Integer getNumber() {
+        return number;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public Boolean getTotalExact() {
+        return totalExact;
+    }
+}
@@ -0,0 +1,44 @@
+package com.fkbinho.dscatalog.dto;
+
+import java.util.List;
+
+public class SyncDTO {
+
+    private List<CategoryDTO> categories;
+    private List<ProductDTO> products;
+    private List<TombstoneDTO> deleted;
+    private String nextToken;
+    private Boolean hasMore;
+
+    public SyncDTO() {
+    }
+
+    public SyncDTO(List<CategoryDTO> categories, List<ProductDTO> products, List<TombstoneDTO> deleted,
+            String nextToken, Boolean hasMore) {
+        this.categories = categories;
+        this.products = products;
+        this.deleted = deleted;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+
+    public List<CategoryDTO> getCategories() {
+        return categories;
+    }
+
+    public List<ProductDTO> getProducts() {
+        return products;
+    }
+
+    public List<TombstoneDTO> getDeleted() {
+        return deleted;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fkbinho.dscatalog.dto;
+
+import com.fkbinho.dscatalog.entities.Tombstone;
+
+import java.time.Instant;
+
+public class TombstoneDTO {
+
+    private String type;
+    private Long id;
+    private Instant deletedAt;
+
+    public TombstoneDTO() {
+    }
+
+    public TombstoneDTO(Tombstone entity) {
+        type = entity.getType();
+        id = entity.getEntityId();
+        deletedAt = entity.getDeletedAt();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
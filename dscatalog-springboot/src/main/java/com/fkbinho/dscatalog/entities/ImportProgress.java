@@ -0,0 +1,84 @@
+package com.fkbinho.dscatalog.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "tb_import_progress")
+public class ImportProgress {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Version
+    private Long version;
+
+    private Long committedRows = 0L;
+    private Long created = 0L;
+    private Long failed = 0L;
+
+    @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant updatedAt;
+
+    public ImportProgress() {
+    }
+
+    public ImportProgress(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getCommittedRows() {
+        return committedRows;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Returns a copy moved forward past lastRow, leaving this instance untouched
+     * in case the chunk transaction rolls back.
+     */
+    public ImportProgress advance(long lastRow, long created, long failed) {
+        ImportProgress next = new ImportProgress(id);
+        next.version = version;
+        next.committedRows = lastRow;
+        next.created = this.created + created;
+        next.failed = this.failed + failed;
+        next.updatedAt = Instant.now();
+        return next;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ImportProgress that = (ImportProgress) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -1,19 +1,35 @@
 package com.fkbinho.dscatalog.entities;
 
+import com.fkbinho.dscatalog.config.CacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = {
+        @Index(name = "ix_product_price", columnList = "price"),
+        @Index(name = "ix_product_date", columnList = "date"),
+        @Index(name = "ix_product_name", columnList = "name"),
+        @Index(name = "ix_product_updated_at", columnList = "updated_at, id")})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "tb_product_seq", allocationSize = 50)
     private Long id;
+
+    @Version
+    @Column(columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
+    // Required by ProductDTO; keeps keyset pages by name a single range on ix_product_name
+    @Column(nullable = false)
     private String name;
 
     @Column(columnDefinition = "TEXT")
@@ -24,10 +40,15 @@ public class Product {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant date;
 
+    @Column(name = "updated_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
+    private Instant updatedAt;
+
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.L2_PRODUCT_CATEGORIES)
     @JoinTable(name = "tb_product_category",
         joinColumns = @JoinColumn(name = "product_id"),
-        inverseJoinColumns = @JoinColumn(name = "category_id"))
+        inverseJoinColumns = @JoinColumn(name = "category_id"),
+        indexes = @Index(name = "ix_product_category_category", columnList = "category_id, product_id"))
     Set<Category> categories = new HashSet<>();
 
     public Product() {
@@ -50,6 +71,10 @@ public class Product {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -90,10 +115,22 @@ public class Product {
         this.date = date;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public Set<Category> getCategories() {
         return categories;
     }
 
+    // Truncated to what the column stores, so a sync token taken from a managed entity matches the row.
+    // Stamped at flush, not at commit: delta sync's grace window covers the gap
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
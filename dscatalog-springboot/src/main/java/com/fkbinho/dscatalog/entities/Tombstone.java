@@ -0,0 +1,73 @@
+package com.fkbinho.dscatalog.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Record of a deleted product or category, kept so delta sync can tell offline clients what to drop.
+ */
+@Entity
+@Table(name = "tb_tombstone", indexes = @Index(name = "ix_tombstone_deleted_at", columnList = "deleted_at, id"))
+public class Tombstone {
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+    public static final String TYPE_CATEGORY = "CATEGORY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tombstone_seq")
+    @SequenceGenerator(name = "tombstone_seq", sequenceName = "tb_tombstone_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(length = 16, nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {
+    }
+
+    public Tombstone(String type, Long entityId) {
+        this.type = type;
+        this.entityId = entityId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Tombstone tombstone = (Tombstone) o;
+        return Objects.equals(id, tombstone.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.entities.Category;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CategoryLookupRepository {
+
+    /**
+     * The categories with the given ids that exist. Ids held in the second-level cache are not
+     * selected again; the rest are read in one IN query.
+     */
+    List<Category> findAllByIdCached(Collection<Long> ids);
+}
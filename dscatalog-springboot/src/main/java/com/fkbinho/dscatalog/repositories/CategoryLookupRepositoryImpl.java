@@ -0,0 +1,25 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.entities.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+public class CategoryLookupRepositoryImpl implements CategoryLookupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Category> findAllByIdCached(Collection<Long> ids) {
+        // Unlike findAllById, multiLoad consults the category region before going to the database
+        return entityManager.unwrap(Session.class).byMultipleIds(Category.class)
+                .multiLoad(List.copyOf(ids)).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,9 +1,72 @@
 package com.fkbinho.dscatalog.repositories;
 
+import com.fkbinho.dscatalog.config.CacheConfig;
 import com.fkbinho.dscatalog.entities.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, KeysetPageRepository<Category>,
+        CategoryLookupRepository {
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.L2_CATEGORY_QUERIES)})
+    Page<Category> findAll(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.L2_CATEGORY_QUERIES)})
+    @Query("SELECT obj FROM Category obj")
+    Slice<Category> findAllAsSlice(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Category obj WHERE obj.id = :id")
+    int deleteCategoryById(@Param("id") Long id);
+
+    @Query("SELECT obj.version FROM Category obj WHERE obj.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT obj FROM Category obj "
+            + "WHERE obj.updatedAt <= :until "
+            + "AND (obj.updatedAt > :since OR (obj.updatedAt = :since AND obj.id > :id)) "
+            + "ORDER BY obj.updatedAt, obj.id")
+    List<Category> findChangedSince(@Param("since") Instant since, @Param("id") Long id,
+            @Param("until") Instant until, Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Category obj ORDER BY obj.id")
+    List<Category> findFirstPageOrderById(Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Category obj WHERE obj.id > :id ORDER BY obj.id")
+    List<Category> findNextPageOrderById(@Param("id") Long id, Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Category obj WHERE obj.name IS NOT NULL ORDER BY obj.name, obj.id")
+    List<Category> findFirstPageOrderByName(Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Category obj "
+            + "WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id) "
+            + "ORDER BY obj.name, obj.id")
+    List<Category> findNextPageOrderByName(@Param("name") String name, @Param("id") Long id, Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Category obj WHERE obj.name IS NULL AND obj.id > :id ORDER BY obj.id")
+    List<Category> findNextPageOrderByNullName(@Param("id") Long id, Pageable limit);
 }
@@ -0,0 +1,9 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.entities.ImportProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportProgressRepository extends JpaRepository<ImportProgress, String> {
+}
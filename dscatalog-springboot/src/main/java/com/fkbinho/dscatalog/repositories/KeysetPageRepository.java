@@ -0,0 +1,26 @@
+package com.fkbinho.dscatalog.repositories;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Keyset page queries shared by the catalog repositories, which declare each one with its own
+ * JPQL. The name queries cover named rows only, so they stay range scans on the name index; rows
+ * with a null name follow them, by id, from {@link #findNextPageOrderByNullName}.
+ */
+public interface KeysetPageRepository<T> {
+
+    List<T> findFirstPageOrderById(Pageable limit);
+
+    List<T> findNextPageOrderById(Long id, Pageable limit);
+
+    List<T> findFirstPageOrderByName(Pageable limit);
+
+    List<T> findNextPageOrderByName(String name, Long id, Pageable limit);
+
+    // Only repositories whose name column is nullable have anything to return here
+    default List<T> findNextPageOrderByNullName(Long id, Pageable limit) {
+        return List.of();
+    }
+}
@@ -0,0 +1,18 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.dto.ProductSummaryDTO;
+import com.fkbinho.dscatalog.entities.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filtered variants of the narrow listing queries of ProductRepository, which JpaSpecificationExecutor
+ * can only offer for whole entities.
+ */
+public interface ProductFilterRepository {
+
+    Page<Long> findPageOfIds(Specification<Product> spec, Pageable pageable);
+
+    Page<ProductSummaryDTO> findAllSummaries(Specification<Product> spec, Pageable pageable);
+}
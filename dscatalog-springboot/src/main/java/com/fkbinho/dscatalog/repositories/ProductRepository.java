@@ -1,9 +1,111 @@
 package com.fkbinho.dscatalog.repositories;
 
+import com.fkbinho.dscatalog.dto.ProductSummaryDTO;
 import com.fkbinho.dscatalog.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        KeysetPageRepository<Product>, ProductFilterRepository {
+
+    @Query("SELECT obj FROM Product obj")
+    Slice<Product> findAllAsSlice(Pageable pageable);
+
+    // Declaring the table lets Hibernate evict only the product.categories cache region, not every region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_product_category"))
+    @Query(nativeQuery = true, value = "DELETE FROM tb_product_category WHERE product_id = :id")
+    int deleteCategoryLinksByProductId(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Product obj WHERE obj.id = :id")
+    int deleteProductById(@Param("id") Long id);
+
+    @Query("SELECT obj.id FROM Product obj WHERE obj.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_product_category"))
+    @Query(nativeQuery = true, value = "DELETE FROM tb_product_category WHERE product_id IN :ids")
+    int deleteCategoryLinksByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Product obj WHERE obj.id IN :ids")
+    int deleteProductsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // One row per category (or a single row with nulls when there is none), ordered by category id
+    @Query("SELECT obj.version, cat.id, cat.version FROM Product obj LEFT JOIN obj.categories cat "
+            + "WHERE obj.id = :id ORDER BY cat.id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+
+    @Query(value = "SELECT new com.fkbinho.dscatalog.dto.ProductSummaryDTO(obj.id, obj.name, obj.price, obj.imgUrl, obj.date) "
+            + "FROM Product obj",
+            countQuery = "SELECT COUNT(obj) FROM Product obj")
+    Page<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT obj.id FROM Product obj",
+            countQuery = "SELECT COUNT(obj) FROM Product obj")
+    Page<Long> findPageOfIds(Pageable pageable);
+
+    @Query("SELECT DISTINCT obj FROM Product obj LEFT JOIN FETCH obj.categories WHERE obj.id IN :ids")
+    List<Product> findWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("SELECT obj FROM Product obj ORDER BY obj.id")
+    Stream<Product> streamAllOrderById();
+
+    @Query("SELECT obj.id, cat FROM Product obj JOIN obj.categories cat WHERE obj.id IN :ids")
+    List<Object[]> findCategoriesByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows are (product id, version, category id); products without categories come back once
+    // with a null category id
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("SELECT obj.id, obj.version, cat.id FROM Product obj LEFT JOIN obj.categories cat ORDER BY obj.id")
+    Stream<Object[]> streamAllCategoryLinks();
+
+    @Query("SELECT obj FROM Product obj "
+            + "WHERE obj.updatedAt <= :until "
+            + "AND (obj.updatedAt > :since OR (obj.updatedAt = :since AND obj.id > :id)) "
+            + "ORDER BY obj.updatedAt, obj.id")
+    List<Product> findChangedSince(@Param("since") Instant since, @Param("id") Long id,
+            @Param("until") Instant until, Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Product obj ORDER BY obj.id")
+    List<Product> findFirstPageOrderById(Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Product obj WHERE obj.id > :id ORDER BY obj.id")
+    List<Product> findNextPageOrderById(@Param("id") Long id, Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Product obj ORDER BY obj.name, obj.id")
+    List<Product> findFirstPageOrderByName(Pageable limit);
+
+    @Override
+    @Query("SELECT obj FROM Product obj "
+            + "WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id) "
+            + "ORDER BY obj.name, obj.id")
+    List<Product> findNextPageOrderByName(@Param("name") String name, @Param("id") Long id, Pageable limit);
 }
@@ -0,0 +1,79 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.dto.ProductFilterDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Predicates for ProductRepository.findAll(Specification, Pageable). Each one is shaped to be answered
+ * from an index declared on Product: range and prefix conditions on plain columns, and the category
+ * filter as a subquery on tb_product_category(category_id, product_id).
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> of(ProductFilterDTO filter) {
+        Specification<Product> spec = Specification.where(null);
+        if (filter.getMinPrice() != null) {
+            spec = spec.and(priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            spec = spec.and(priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and(dateFrom(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and(dateTo(filter.getTo()));
+        }
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            spec = spec.and(nameStartsWith(filter.getName()));
+        }
+        if (filter.getCategoryId() != null && !filter.getCategoryId().isEmpty()) {
+            spec = spec.and(inAnyCategory(filter.getCategoryId()));
+        }
+        return spec;
+    }
+
+    public static Specification<Product> priceAtLeast(double min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), min);
+    }
+
+    public static Specification<Product> priceAtMost(double max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), max);
+    }
+
+    public static Specification<Product> dateFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Product> dateTo(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    // Case-sensitive so the predicate stays a range on ix_product_name
+    public static Specification<Product> nameStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, '\\');
+    }
+
+    // Starts from the categories so only the join table index is read, never tb_category or a join per row
+    public static Specification<Product> inAnyCategory(Collection<Long> categoryIds) {
+        return (root, query, cb) -> {
+            Subquery<Long> sub = query.subquery(Long.class);
+            Root<Category> category = sub.from(Category.class);
+            Join<Category, Product> product = category.join("products");
+            sub.select(product.get("id")).where(category.get("id").in(categoryIds));
+            return root.get("id").in(sub);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.fkbinho.dscatalog.repositories;
+
+import com.fkbinho.dscatalog.entities.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("SELECT obj FROM Tombstone obj "
+            + "WHERE obj.deletedAt <= :until "
+            + "AND (obj.deletedAt > :since OR (obj.deletedAt = :since AND obj.id > :id)) "
+            + "ORDER BY obj.deletedAt, obj.id")
+    List<Tombstone> findDeletedSince(@Param("since") Instant since, @Param("id") Long id,
+            @Param("until") Instant until, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone obj WHERE obj.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,25 @@
+package com.fkbinho.dscatalog.resources;
+
+import com.fkbinho.dscatalog.dto.CacheStatsDTO;
+import com.fkbinho.dscatalog.services.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/caches")
+public class CacheResource {
+
+    @Autowired
+    private CacheService service;
+
+    @GetMapping(value = "/stats")
+    public ResponseEntity<List<CacheStatsDTO>> findAllStats() {
+        List<CacheStatsDTO> list = service.findAllStats();
+        return ResponseEntity.ok().body(list);
+    }
+}
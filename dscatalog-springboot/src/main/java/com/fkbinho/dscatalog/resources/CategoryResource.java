@@ -1,10 +1,16 @@
 package com.fkbinho.dscatalog.resources;
 
 import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
+import com.fkbinho.dscatalog.dto.SliceDTO;
 import com.fkbinho.dscatalog.services.CategoryService;
+import com.fkbinho.dscatalog.services.CountMode;
+import com.fkbinho.dscatalog.services.exceptions.PreconditionFailedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -25,10 +31,48 @@ public class CategoryResource {
         return ResponseEntity.ok().body(list);
     }
 
+    @GetMapping(value = "/slice")
+    public ResponseEntity<SliceDTO<CategoryDTO>> findAllSliced(
+            Pageable pageable, @RequestParam(defaultValue = "NONE") CountMode count) {
+
+        // PARAMETROS: page, size, sort, count (NONE, EXACT ou ESTIMATE)
+        SliceDTO<CategoryDTO> list = service.findAllSliced(pageable, count);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(value = "/cursor")
+    public ResponseEntity<CursorPageDTO<CategoryDTO>> findAllByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "12") Integer size,
+            @RequestParam(defaultValue = "false") Boolean count) {
+
+        // PARAMETROS: after (cursor opaco da pagina anterior), sort (id ou name), size, count
+        CursorPageDTO<CategoryDTO> list = service.findAllByCursor(after, sort, size, count);
+
+        return ResponseEntity.ok().body(list);
+    }
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // Answer 304 from the version alone, without loading the entity
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(service.findVersion(id));
+            if (ETags.matchesNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
         CategoryDTO dto = service.findById(id);
-        return ResponseEntity.ok().body(dto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String eTag = ETags.of(dto.getVersion());
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(dto);
     }
 
     @PostMapping
@@ -40,8 +84,19 @@ public class CategoryResource {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto) {
-        dto = service.update(id, dto);
+    public ResponseEntity<CategoryDTO> update(@PathVariable Long id, @RequestBody CategoryDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        if (ifMatch == null) {
+            dto = service.update(id, dto);
+        } else {
+            // Reject stale writes from the version alone; the update re-checks it on the loaded entity
+            Long current = service.findVersion(id);
+            if (!ETags.matchesIfMatch(ifMatch, ETags.of(current))) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
+            dto = service.update(id, dto, current);
+        }
         return ResponseEntity.ok().body(dto);
     }
 
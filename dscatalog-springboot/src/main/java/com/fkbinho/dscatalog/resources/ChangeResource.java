@@ -0,0 +1,44 @@
+package com.fkbinho.dscatalog.resources;
+
+import com.fkbinho.dscatalog.dto.ChangeEventDTO;
+import com.fkbinho.dscatalog.services.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/changes")
+public class ChangeResource {
+
+    @Autowired
+    private ChangeFeedService service;
+
+    @GetMapping
+    public ResponseEntity<List<ChangeEventDTO>> findFrom(@RequestParam String from,
+            @RequestParam(defaultValue = "256") Integer limit) {
+
+        // PARAMETROS: from (primeiro offset desejado, <epoca>:<offset>), limit (no maximo dscatalog.changes.batch-size)
+        // Repetir com o offset do ultimo evento + 1; 410 quando o offset ja saiu do buffer ou e de antes
+        // de um restart, e o cliente deve ressincronizar por /products/changes
+        List<ChangeEventDTO> events = service.read(from, limit);
+
+        return ResponseEntity.ok().body(events);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String from,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        // PARAMETROS: from (primeiro offset desejado, <epoca>:<offset>); sem ele, Last-Event-ID + 1
+        // na reconexao, ou apenas os eventos novos. Evento reset quando o offset e de antes de um restart
+        return service.subscribe(from, lastEventId);
+    }
+}
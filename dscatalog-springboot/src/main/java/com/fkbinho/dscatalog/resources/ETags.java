@@ -0,0 +1,88 @@
+package com.fkbinho.dscatalog.resources;
+
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.ProductVersionDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Strong ETags derived from entity versions. A product tag also carries a hash of its
+ * (categoryId, version) pairs in id order, since category names are part of the product
+ * representation and a plain sum of versions would collide across different category sets.
+ */
+public class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(ProductVersionDTO version) {
+        return of(version.getVersion(), version.getCategoryVersions());
+    }
+
+    public static String of(ProductDTO dto) {
+        if (dto.getVersion() == null) {
+            return null;
+        }
+        SortedMap<Long, Long> categoryVersions = new TreeMap<>();
+        for (CategoryDTO cat : dto.getCategories()) {
+            categoryVersions.put(cat.getId(), cat.getVersion());
+        }
+        return of(dto.getVersion(), categoryVersions);
+    }
+
+    private static String of(Long version, SortedMap<Long, Long> categoryVersions) {
+        StringBuilder pairs = new StringBuilder();
+        for (Map.Entry<Long, Long> entry : categoryVersions.entrySet()) {
+            pairs.append(entry.getKey()).append(':').append(entry.getValue()).append(';');
+        }
+        String hash = DigestUtils.md5DigestAsHex(pairs.toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + version + "-" + hash + "\"";
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison: W/"1" matches "1".
+     */
+    public static boolean matchesNoneMatch(String header, String eTag) {
+        return matches(header, eTag, true);
+    }
+
+    /**
+     * If-Match uses strong comparison: weak tags never match.
+     */
+    public static boolean matchesIfMatch(String header, String eTag) {
+        return matches(header, eTag, false);
+    }
+
+    private static boolean matches(String header, String eTag, boolean weak) {
+        if (header == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                candidate = candidate.substring(WEAK_PREFIX.length());
+            }
+            if (candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
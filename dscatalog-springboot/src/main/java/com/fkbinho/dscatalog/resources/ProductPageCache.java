@@ -0,0 +1,73 @@
+package com.fkbinho.dscatalog.resources;
+
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized GET /products responses, plain and gzipped, keyed by their normalized query string.
+ * Any committed product write empties it. A response computed while a write committed is not kept:
+ * callers capture {@link #generation()} before computing and pass it back to {@link #put}.
+ */
+@Component
+public class ProductPageCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<String, CachedPage> pages;
+
+    public ProductPageCache(@Value("${dscatalog.response-cache.max-entries}") long maxEntries,
+            @Value("${dscatalog.response-cache.ttl}") Duration ttl) {
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CachedPage get(String key) {
+        return pages.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, long generation, String contentType, byte[] body) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        pages.put(key, new CachedPage(contentType, body, gzip(body)));
+        // An invalidation may have run between the check and the put
+        if (this.generation.get() != generation) {
+            pages.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public record CachedPage(String contentType, byte[] body, byte[] gzipBody) {
+    }
+}
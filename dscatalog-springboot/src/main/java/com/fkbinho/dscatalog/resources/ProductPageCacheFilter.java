@@ -0,0 +1,112 @@
+package com.fkbinho.dscatalog.resources;
+
+import com.fkbinho.dscatalog.routing.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Answers repeated GET /products listings from {@link ProductPageCache}, without reaching the
+ * controller, the service or Jackson. Only requests whose parameters are all in CACHEABLE_PARAMS
+ * are cached; anything else, such as include=categories, always goes through.
+ */
+@Component
+public class ProductPageCacheFilter extends OncePerRequestFilter {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private static final String PATH = "/products";
+    private static final Set<String> CACHEABLE_PARAMS = Set.of("page", "size", "sort", "view",
+            "minPrice", "maxPrice", "from", "to", "name", "categoryId");
+
+    @Autowired
+    private ProductPageCache cache;
+
+    @Value("${dscatalog.response-cache.enabled}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!PATH.equals(path) || !CACHEABLE_PARAMS.containsAll(request.getParameterMap().keySet())) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && !accept.contains(MediaType.APPLICATION_JSON_VALUE) && !accept.contains("*/*");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = keyOf(request);
+        boolean gzip = acceptsGzip(request);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        ProductPageCache.CachedPage page = cache.get(key);
+        if (page != null) {
+            response.setHeader(CACHE_HEADER, "HIT");
+            response.setContentType(page.contentType());
+            byte[] body = gzip ? page.gzipBody() : page.body();
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+
+        long generation = cache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        wrapper.setHeader(CACHE_HEADER, "MISS");
+        // A page read from a lagging replica right after a write would be cached until the TTL,
+        // so pages that fill the cache are always read from the primary
+        boolean pinned = ReadRouting.isPinnedToPrimary();
+        if (!pinned) {
+            ReadRouting.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            if (!pinned) {
+                ReadRouting.clear();
+            }
+        }
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+            cache.put(key, generation, wrapper.getContentType(), wrapper.getContentAsByteArray());
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // Parameters sorted by name, values kept in request order since sort order matters
+    private static String keyOf(HttpServletRequest request) {
+        Map<String, String[]> sorted = new TreeMap<>(request.getParameterMap());
+        StringBuilder key = new StringBuilder();
+        sorted.forEach((name, values) -> {
+            for (String value : values) {
+                key.append(name).append('=').append(value).append('&');
+            }
+        });
+        return key.toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+}
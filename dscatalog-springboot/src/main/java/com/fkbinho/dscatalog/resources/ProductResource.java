@@ -1,15 +1,47 @@
 package com.fkbinho.dscatalog.resources;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fkbinho.dscatalog.dto.BatchResultDTO;
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
+import com.fkbinho.dscatalog.dto.ImportReportDTO;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.ProductFilterDTO;
+import com.fkbinho.dscatalog.dto.ProductPatchDTO;
+import com.fkbinho.dscatalog.dto.ProductSearchResultDTO;
+import com.fkbinho.dscatalog.dto.ProductSummaryDTO;
+import com.fkbinho.dscatalog.dto.ProductVersionDTO;
+import com.fkbinho.dscatalog.dto.SliceDTO;
+import com.fkbinho.dscatalog.dto.SyncDTO;
+import com.fkbinho.dscatalog.services.CountMode;
+import com.fkbinho.dscatalog.services.ExportFormat;
+import com.fkbinho.dscatalog.services.ProductBatchService;
+import com.fkbinho.dscatalog.services.ProductCategoryIndexService;
+import com.fkbinho.dscatalog.services.ProductExportService;
+import com.fkbinho.dscatalog.services.ProductImportService;
+import com.fkbinho.dscatalog.services.ProductSearchService;
 import com.fkbinho.dscatalog.services.ProductService;
+import com.fkbinho.dscatalog.services.ProductSyncService;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
+import com.fkbinho.dscatalog.services.exceptions.PreconditionFailedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -18,19 +50,157 @@ public class ProductResource {
     @Autowired
     private ProductService service;
 
+    @Autowired
+    private ProductSearchService searchService;
+
+    @Autowired
+    private ProductCategoryIndexService categoryIndexService;
+
+    @Autowired
+    private ProductSyncService syncService;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
+    public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable, ProductFilterDTO filter) {
 
         // PARAMETROS: page, size, sort
-        Page<ProductDTO> list = service.findAllPaged(pageable);
+        // FILTROS: minPrice, maxPrice, from, to (ISO-8601), name (prefixo), categoryId (um ou mais)
+        Page<ProductDTO> list = filter.isEmpty()
+                ? service.findAllPaged(pageable)
+                : service.findAllPaged(filter, pageable);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(params = "include=categories")
+    public ResponseEntity<Page<ProductDTO>> findAllWithCategories(Pageable pageable, ProductFilterDTO filter) {
+
+        // PARAMETROS: page, size, sort, include=categories
+        // FILTROS: os mesmos de GET /products
+        Page<ProductDTO> list = service.findAllPagedWithCategories(filter, pageable);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(params = "view=summary")
+    public ResponseEntity<Page<ProductSummaryDTO>> findAllSummaries(Pageable pageable, ProductFilterDTO filter) {
+
+        // PARAMETROS: page, size, sort, view=summary (sem descricao, para listagens)
+        // FILTROS: os mesmos de GET /products
+        Page<ProductSummaryDTO> list = service.findAllSummaries(filter, pageable);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(value = "/slice")
+    public ResponseEntity<SliceDTO<ProductDTO>> findAllSliced(
+            Pageable pageable, @RequestParam(defaultValue = "NONE") CountMode count) {
+
+        // PARAMETROS: page, size, sort, count (NONE, EXACT ou ESTIMATE)
+        SliceDTO<ProductDTO> list = service.findAllSliced(pageable, count);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(value = "/cursor")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> findAllByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "12") Integer size,
+            @RequestParam(defaultValue = "false") Boolean count) {
+
+        // PARAMETROS: after (cursor opaco da pagina anterior), sort (id ou name), size, count
+        CursorPageDTO<ProductDTO> list = service.findAllByCursor(after, sort, size, count);
+
+        return ResponseEntity.ok().body(list);
+    }
 
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<ProductSearchResultDTO>> search(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<ProductSearchResultDTO> list = searchService.search(query, limit);
         return ResponseEntity.ok().body(list);
     }
 
+    @GetMapping(value = "/by-category")
+    public ResponseEntity<Page<ProductDTO>> findAllByCategory(Pageable pageable,
+            @RequestParam(required = false) List<Long> all,
+            @RequestParam(required = false) List<Long> any,
+            @RequestParam(required = false) List<Long> none) {
+
+        // PARAMETROS: page, size; all (em todas), any (em alguma), none (em nenhuma) - ids de categoria
+        // A ordem e sempre por id: a pagina sai direto do bitmap, sem ORDER BY no banco
+        Page<ProductDTO> list = categoryIndexService.findAll(all, any, none, pageable);
+
+        return ResponseEntity.ok().body(list);
+    }
+
+    @GetMapping(value = "/by-category/counts")
+    public ResponseEntity<Map<Long, Long>> countByCategory(
+            @RequestParam(required = false) List<Long> all,
+            @RequestParam(required = false) List<Long> any,
+            @RequestParam(required = false) List<Long> none) {
+
+        // PARAMETROS: all, any, none; retorna quantos produtos do resultado ha em cada categoria
+        Map<Long, Long> counts = categoryIndexService.countByCategory(all, any, none);
+
+        return ResponseEntity.ok().body(counts);
+    }
+
+    @GetMapping(value = "/changes")
+    public ResponseEntity<SyncDTO> findChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") Integer limit) {
+
+        // PARAMETROS: since (nextToken da resposta anterior; sem ele, tudo desde o inicio), limit
+        // Repetir com o nextToken enquanto hasMore for true
+        SyncDTO changes = syncService.findChangesSince(since, limit);
+
+        return ResponseEntity.ok().body(changes);
+    }
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+
+        // PARAMETROS: format (NDJSON ou CSV); o corpo e escrito direto no OutputStream da resposta
+        MediaType contentType = format == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> exportService.export(format, out);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
     @GetMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // Answer 304 from the version alone, without loading the entity
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(service.findVersion(id));
+            if (ETags.matchesNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
         ProductDTO dto = service.findById(id);
-        return ResponseEntity.ok().body(dto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String eTag = ETags.of(dto);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(dto);
     }
 
     @PostMapping
@@ -41,12 +211,89 @@ public class ProductResource {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResultDTO> insertBatch(@RequestBody List<ProductDTO> list) {
+        BatchResultDTO result = batchService.insertAll(list.iterator());
+        return ResponseEntity.ok().body(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResultDTO> insertBatchNdjson(BufferedReader reader) throws IOException {
+        // Parse every line up front so a malformed body is rejected before anything is inserted
+        List<ProductDTO> list = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                list.add(objectMapper.readValue(line, ProductDTO.class));
+            } catch (JsonProcessingException e) {
+                throw new InvalidPayloadException("Malformed JSON at line " + lineNumber);
+            }
+        }
+        BatchResultDTO result = batchService.insertAll(list.iterator());
+        return ResponseEntity.ok().body(result);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importNdjson(BufferedReader reader,
+            @RequestParam(required = false) String importId) throws IOException {
+
+        // PARAMETROS: importId (reenviar o mesmo arquivo com o mesmo id retoma apos a ultima linha gravada)
+        ImportReportDTO report = importService.importNdjson(reader, importId);
+        return ResponseEntity.ok().body(report);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importCsv(BufferedReader reader,
+            @RequestParam(required = false) String importId) throws IOException {
+        ImportReportDTO report = importService.importCsv(reader, importId);
+        return ResponseEntity.ok().body(report);
+    }
+
     @PutMapping(value = "/{id}")
-    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto) {
-        dto = service.update(id, dto);
+    public ResponseEntity<ProductDTO> update(@PathVariable Long id, @RequestBody ProductDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        if (ifMatch == null) {
+            dto = service.update(id, dto);
+        } else {
+            // Reject stale writes from the version alone; the update re-checks it on the loaded entity
+            ProductVersionDTO current = service.findVersion(id);
+            if (!ETags.matchesIfMatch(ifMatch, ETags.of(current))) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
+            dto = service.update(id, dto, current.getVersion());
+        }
         return ResponseEntity.ok().body(dto);
     }
 
+    @PatchMapping(value = "/{id}")
+    public ResponseEntity<ProductDTO> patch(@PathVariable Long id, @RequestBody ProductPatchDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        // Campos ausentes (null) ficam como estao; categories, quando enviado, substitui o conjunto
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            ProductVersionDTO current = service.findVersion(id);
+            if (!ETags.matchesIfMatch(ifMatch, ETags.of(current))) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
+            expectedVersion = current.getVersion();
+        }
+        ProductDTO result = service.patch(id, dto, expectedVersion);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<Void> deleteAll(@RequestParam List<Long> ids) {
+        service.deleteAll(ids);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
@@ -0,0 +1,25 @@
+package com.fkbinho.dscatalog.routing;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary, set for the requests of a
+ * client that wrote recently so it reads its own writes regardless of replication lag.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
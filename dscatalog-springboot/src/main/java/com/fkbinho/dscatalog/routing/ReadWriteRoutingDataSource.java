@@ -0,0 +1,42 @@
+package com.fkbinho.dscatalog.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * The application's single DataSource when routing is enabled. Connections are fetched lazily, on
+ * the first statement, so by then the transaction manager has marked a read-only transaction's
+ * connection read-only and it is taken from the replicas; everything else uses the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final ReplicaDataSource replicas;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, ReplicaDataSource replicas) {
+        this(primary, primary, replicas);
+    }
+
+    /**
+     * Writes go to {@code target}, the primary pool itself or a wrapper around it such as a
+     * ConcurrencyLimitedDataSource; {@code primary} is the pool closed with this DataSource.
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource primary, DataSource target, ReplicaDataSource replicas) {
+        super(target);
+        this.primary = primary;
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    public ReplicaDataSource getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.close();
+        primary.close();
+    }
+}
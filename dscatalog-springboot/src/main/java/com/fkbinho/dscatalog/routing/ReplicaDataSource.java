@@ -0,0 +1,124 @@
+package com.fkbinho.dscatalog.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read side of the routing: hands out connections round-robin across the healthy replica pools.
+ * A replica that fails to give a connection is marked unhealthy and skipped until the background
+ * check finds it valid again; with no healthy replica, or when the thread is pinned, reads go to
+ * the primary instead of failing.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> pools, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-health").daemon(true).factory());
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadRouting.isPinnedToPrimary() && !replicas.isEmpty()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection con = replica.pool.getConnection();
+                    replica.served.incrementAndGet();
+                    return con;
+                } catch (SQLException e) {
+                    replica.healthy = false;
+                    log.warn("Replica {} marked unhealthy: {}", replica.pool.getPoolName(), e.getMessage());
+                }
+            }
+        }
+        primaryReads.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Connections handed out per target since startup, replicas by pool name.
+     */
+    public Map<String, Long> servedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        replicas.forEach(replica -> counts.put(replica.pool.getPoolName(), replica.served.get()));
+        counts.put(PRIMARY, primaryReads.get());
+        return counts;
+    }
+
+    public Map<String, Boolean> health() {
+        Map<String, Boolean> health = new LinkedHashMap<>();
+        replicas.forEach(replica -> health.put(replica.pool.getPoolName(), replica.healthy));
+        return health;
+    }
+
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection con = replica.pool.getConnection()) {
+                healthy = con.isValid(1);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.pool.getPoolName(), healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final AtomicLong served = new AtomicLong();
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
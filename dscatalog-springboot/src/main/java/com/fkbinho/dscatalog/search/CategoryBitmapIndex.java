@@ -0,0 +1,136 @@
+package com.fkbinho.dscatalog.search;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of category membership: one compressed bitmap of product ids per category,
+ * plus one of every product so NOT-only queries have something to subtract from. Boolean
+ * category queries are answered with bitmap AND/OR/ANDNOT and return a private copy, which
+ * callers can page with {@link Roaring64NavigableMap#select(long)} in id order.
+ */
+public class CategoryBitmapIndex {
+
+    private final Map<Long, Roaring64NavigableMap> categories = new HashMap<>();
+    private final Roaring64NavigableMap products = new Roaring64NavigableMap();
+
+    // Roaring64NavigableMap caches cardinalities even on reads, so reads are serialized too
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public void put(long productId, Collection<Long> categoryIds) {
+        lock.lock();
+        try {
+            removeUnlocked(productId);
+            products.addLong(productId);
+            for (Long categoryId : categoryIds) {
+                categories.computeIfAbsent(categoryId, k -> new Roaring64NavigableMap()).addLong(productId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.lock();
+        try {
+            removeUnlocked(productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Products in every category of {@code all}, in at least one of {@code any} and in none of
+     * {@code none}. Empty {@code all} and {@code any} mean every product.
+     */
+    public Roaring64NavigableMap query(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        lock.lock();
+        try {
+            return queryUnlocked(all, any, none);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of matching products in each indexed category. Without any criteria these are the
+     * plain bitmap cardinalities.
+     */
+    public Map<Long, Long> countByCategory(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        boolean unfiltered = all.isEmpty() && any.isEmpty() && none.isEmpty();
+        Map<Long, Long> counts = new TreeMap<>();
+        lock.lock();
+        try {
+            Roaring64NavigableMap matching = unfiltered ? null : queryUnlocked(all, any, none);
+            for (Map.Entry<Long, Roaring64NavigableMap> entry : categories.entrySet()) {
+                if (matching == null) {
+                    counts.put(entry.getKey(), entry.getValue().getLongCardinality());
+                } else {
+                    Roaring64NavigableMap intersection = copyOf(entry.getValue());
+                    intersection.and(matching);
+                    counts.put(entry.getKey(), intersection.getLongCardinality());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return counts;
+    }
+
+    private Roaring64NavigableMap queryUnlocked(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        Roaring64NavigableMap result = null;
+        for (Long categoryId : all) {
+            Roaring64NavigableMap bitmap = categories.get(categoryId);
+            if (bitmap == null) {
+                return new Roaring64NavigableMap();
+            }
+            if (result == null) {
+                result = copyOf(bitmap);
+            } else {
+                result.and(bitmap);
+            }
+        }
+        if (!any.isEmpty()) {
+            Roaring64NavigableMap union = new Roaring64NavigableMap();
+            for (Long categoryId : any) {
+                Roaring64NavigableMap bitmap = categories.get(categoryId);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+            if (result == null) {
+                result = union;
+            } else {
+                result.and(union);
+            }
+        }
+        if (result == null) {
+            result = copyOf(products);
+        }
+        for (Long categoryId : none) {
+            Roaring64NavigableMap bitmap = categories.get(categoryId);
+            if (bitmap != null) {
+                result.andNot(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private void removeUnlocked(long productId) {
+        products.removeLong(productId);
+        for (Roaring64NavigableMap bitmap : categories.values()) {
+            bitmap.removeLong(productId);
+        }
+    }
+
+    private static Roaring64NavigableMap copyOf(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        copy.or(bitmap);
+        return copy;
+    }
+}
@@ -0,0 +1,4 @@
+package com.fkbinho.dscatalog.search;
+
+public record ScoredDocument(long id, double score) {
+}
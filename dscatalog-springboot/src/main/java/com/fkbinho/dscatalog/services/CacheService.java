@@ -0,0 +1,66 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.config.CacheConfig;
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class CacheService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheStatsDTO> findAllStats() {
+        List<CacheStatsDTO> list = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                list.add(new CacheStatsDTO(name, caffeineCache.getNativeCache().estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.evictionCount(), stats.hitRate()));
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : List.of(CacheConfig.L2_CATEGORY, CacheConfig.L2_PRODUCT_CATEGORIES)) {
+            list.add(regionStats(region, statistics.getDomainDataRegionStatistics(region)));
+        }
+        list.add(regionStats(CacheConfig.L2_CATEGORY_QUERIES,
+                statistics.getQueryRegionStatistics(CacheConfig.L2_CATEGORY_QUERIES)));
+        return list;
+    }
+
+    // Hibernate region names are prefixed so they cannot be confused with the Spring caches
+    private CacheStatsDTO regionStats(String region, CacheRegionStatistics stats) {
+        String name = "hibernate:" + region;
+        if (stats == null) {
+            return new CacheStatsDTO(name, 0L, 0L, 0L, null, 0.0);
+        }
+        long requests = stats.getHitCount() + stats.getMissCount();
+        long size = stats.getElementCountInMemory();
+        return new CacheStatsDTO(name, size < 0 ? null : size, stats.getHitCount(), stats.getMissCount(),
+                null, requests == 0 ? 0.0 : (double) stats.getHitCount() / requests);
+    }
+}
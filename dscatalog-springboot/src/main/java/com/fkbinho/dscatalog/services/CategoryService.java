@@ -1,70 +1,148 @@
 package com.fkbinho.dscatalog.services;
 
+import com.fkbinho.dscatalog.config.CacheConfig;
+import com.fkbinho.dscatalog.config.MetricsConfig;
 import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
+import com.fkbinho.dscatalog.dto.SliceDTO;
 import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Tombstone;
 import com.fkbinho.dscatalog.repositories.CategoryRepository;
+import com.fkbinho.dscatalog.repositories.TombstoneRepository;
+import com.fkbinho.dscatalog.services.events.CategoryChangedEvent;
 import com.fkbinho.dscatalog.services.exceptions.DatabaseException;
+import com.fkbinho.dscatalog.services.exceptions.PreconditionFailedException;
 import com.fkbinho.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class CategoryService {
 
     @Autowired
     private CategoryRepository repository;
 
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_PAGES, key = "#pageable")
     public Page<CategoryDTO> findAllPaged(Pageable pageable) {
         Page<Category> list = repository.findAll(pageable);
         return list.map(CategoryDTO::new);
     }
 
     @Transactional(readOnly = true)
+    public SliceDTO<CategoryDTO> findAllSliced(Pageable pageable, CountMode count) {
+        Slice<Category> slice = repository.findAllAsSlice(pageable);
+        Long total = switch (count) {
+            case EXACT -> repository.count();
+            case ESTIMATE -> countCache.get(CountCache.CATEGORIES, repository::count);
+            case NONE -> null;
+        };
+        return new SliceDTO<>(slice.map(CategoryDTO::new).getContent(), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), total, total == null ? null : count == CountMode.EXACT);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CategoryDTO> findAllByCursor(String after, String sort, int size, boolean count) {
+        Long total = count ? repository.count() : null;
+        return KeysetCursor.findPage(repository, after, sort, size, Category::getId, Category::getName, CategoryDTO::new, total);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     public CategoryDTO findById(Long id) {
         Optional<Category> obj = repository.findById(id);
         Category entity =obj.orElseThrow(() -> new ResourceNotFoundException("Category not found"));
         return new CategoryDTO(entity);
     }
 
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+    }
+
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
     public CategoryDTO insert(CategoryDTO dto) {
         Category entity = new Category();
         entity.setName(dto.getName());
         entity = repository.save(entity);
+        publisher.publishEvent(CategoryChangedEvent.of(CategoryChangedEvent.Operation.INSERT, entity));
         return new CategoryDTO(entity);
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
+    })
     public CategoryDTO update(Long id, CategoryDTO dto) {
+        return update(id, dto, null);
+    }
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
+    })
+    public CategoryDTO update(Long id, CategoryDTO dto, Long expectedVersion) {
         try {
             Category entity = repository.getReferenceById(id);
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
             entity.setName(dto.getName());
             entity = repository.save(entity);
+            // Flush so the returned version is the one that was written
+            repository.flush();
+            publisher.publishEvent(CategoryChangedEvent.of(CategoryChangedEvent.Operation.UPDATE, entity));
             return new CategoryDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("ID not found: " + id);
         }
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
+    })
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("ID not found " + id);
-        }
+        // A single DELETE; the affected row count tells whether the id existed
+        int deleted;
         try {
-            repository.deleteById(id);
+            deleted = repository.deleteCategoryById(id);
         }
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Integrity violation");
         }
+        if (deleted == 0) {
+            throw new ResourceNotFoundException("ID not found " + id);
+        }
+        tombstoneRepository.save(new Tombstone(Tombstone.TYPE_CATEGORY, id));
+        publisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 }
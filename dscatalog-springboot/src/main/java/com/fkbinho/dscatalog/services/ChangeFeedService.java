@@ -0,0 +1,225 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.changes.ChangeRingBuffer;
+import com.fkbinho.dscatalog.changes.OffsetOutOfRangeException;
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.ChangeEventDTO;
+import com.fkbinho.dscatalog.services.events.CategoryChangedEvent;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
+import com.fkbinho.dscatalog.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed product and category writes out to SSE subscribers. Writes only append to a
+ * bounded ring buffer; every subscriber pulls from its own offset on its own virtual thread, so a
+ * slow client never holds up a write or another client. A subscriber that falls further behind
+ * than the buffer holds gets a {@code reset} event and is disconnected; one stuck writing to a
+ * client that stopped reading is dropped by the next write that overruns it, and gets the
+ * {@code reset} when it reconnects. Offsets are {@code <epoch>:<offset>} with a new epoch on every
+ * start, so one from before a restart also gets the {@code reset} instead of unrelated events.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ChangeFeedService {
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+    public static final String TYPE_CATEGORY = "CATEGORY";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final ChangeRingBuffer buffer;
+    private final int batchSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    // Next offset each subscriber still has to deliver
+    private final Map<SseEmitter, AtomicLong> subscribers = new ConcurrentHashMap<>();
+    private final Semaphore slots;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChangeFeedService(@Value("${dscatalog.changes.capacity}") int capacity,
+            @Value("${dscatalog.changes.max-subscribers}") int maxSubscribers,
+            @Value("${dscatalog.changes.batch-size}") int batchSize,
+            @Value("${dscatalog.changes.heartbeat}") Duration heartbeat,
+            @Value("${dscatalog.changes.timeout}") Duration timeout) {
+        this.buffer = new ChangeRingBuffer(capacity);
+        this.slots = new Semaphore(maxSubscribers);
+        this.batchSize = batchSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        buffer.append(TYPE_PRODUCT, event.getId(), event.getVersion(), event.getOperation().name());
+        evictOverrun();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        buffer.append(TYPE_CATEGORY, event.getId(), event.getVersion(), event.getOperation().name());
+        evictOverrun();
+    }
+
+    public String nextOffset() {
+        return buffer.position(buffer.nextOffset());
+    }
+
+    /**
+     * Up to {@code max} retained events from offset {@code from}, without waiting, for clients that
+     * catch up by polling instead of holding a stream open.
+     */
+    public List<ChangeEventDTO> read(String from, int max) {
+        long offset = offsetOf(from);
+        try {
+            return buffer.read(offset, Math.max(1, Math.min(max, batchSize)), 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    /**
+     * Streams events from offset {@code from}, else from the one after {@code lastEventId}, else
+     * only new ones.
+     */
+    public SseEmitter subscribe(String from, String lastEventId) {
+        long start;
+        try {
+            start = from != null ? offsetOf(from)
+                    : lastEventId != null ? offsetOf(lastEventId) + 1
+                    : buffer.nextOffset();
+        } catch (OffsetOutOfRangeException e) {
+            // From an earlier run: the stream carries only the reset event
+            SseEmitter emitter = new SseEmitter(timeout.toMillis());
+            executor.execute(() -> reset(emitter, e));
+            return emitter;
+        }
+
+        // Reserve the slot first, so concurrent subscribers cannot go over the cap
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many change feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicLong position = new AtomicLong(start);
+        subscribers.put(emitter, position);
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(emitter));
+        executor.execute(() -> stream(emitter, position));
+        return emitter;
+    }
+
+    private long offsetOf(String position) {
+        int colon = position.indexOf(':');
+        long offset;
+        try {
+            offset = Long.parseLong(position.substring(colon + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidPayloadException("Invalid change feed offset: " + position);
+        }
+        if (colon < 0) {
+            throw new InvalidPayloadException("Invalid change feed offset: " + position);
+        }
+        if (!position.substring(0, colon).trim().equals(buffer.epoch())) {
+            throw new OffsetOutOfRangeException("Offset " + position
+                    + " is from an earlier run of the change feed, now at epoch " + buffer.epoch());
+        }
+        return offset;
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        if (subscribers.remove(emitter) != null) {
+            slots.release();
+        }
+    }
+
+    // A subscriber blocked on a client that stopped reading never gets to read again, so the writer
+    // drops it once the events it still has to deliver are overwritten
+    private void evictOverrun() {
+        long oldest = buffer.oldestOffset();
+        subscribers.forEach((emitter, position) -> {
+            if (position.get() < oldest) {
+                logger.info("Evicting change feed subscriber at offset {}, oldest retained is {}",
+                        position.get(), oldest);
+                unsubscribe(emitter);
+                // Completing may wait for the blocked send, so it is not done on the writer's thread
+                executor.execute(emitter::complete);
+            }
+        });
+    }
+
+    private void stream(SseEmitter emitter, AtomicLong position) {
+        long offset = position.get();
+        try {
+            while (subscribers.containsKey(emitter)) {
+                List<ChangeEventDTO> events;
+                try {
+                    events = buffer.read(offset, batchSize, heartbeat.toMillis());
+                } catch (OffsetOutOfRangeException e) {
+                    // Too slow: the client has to resync and reconnect
+                    reset(emitter, e);
+                    return;
+                }
+                if (events.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                for (ChangeEventDTO event : events) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getOffset()))
+                            .name("change")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                offset += events.size();
+                position.set(offset);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            unsubscribe(emitter);
+        }
+    }
+
+    // Tells the client to resync through /products/changes and reconnect from nextOffset
+    private void reset(SseEmitter emitter, OffsetOutOfRangeException e) {
+        logger.info("Resetting change feed subscriber: {}", e.getMessage());
+        try {
+            emitter.send(SseEmitter.event().name("reset")
+                    .data(Map.of("nextOffset", nextOffset()), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,61 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.services.events.CategoryChangedEvent;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the last COUNT(*) of each listing for a short time so clients asking for an
+ * approximate total do not pay for a full count on every request. Inserts and deletes drop the
+ * cached count once committed; the TTL only bounds changes made outside this application.
+ */
+@Component
+public class CountCache {
+
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${dscatalog.count-cache.ttl:30s}")
+    private Duration ttl;
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttl.toNanos()) {
+            return entry.value;
+        }
+        long value = counter.getAsLong();
+        entries.put(key, new Entry(value, now));
+        return value;
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getOperation() != ProductChangedEvent.Operation.UPDATE) {
+            invalidate(PRODUCTS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getOperation() != CategoryChangedEvent.Operation.UPDATE) {
+            invalidate(CATEGORIES);
+        }
+    }
+
+    private record Entry(long value, long loadedAt) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.services;
+
+public enum CountMode {
+
+    NONE,
+    EXACT,
+    ESTIMATE
+}
@@ -0,0 +1,7 @@
+package com.fkbinho.dscatalog.services;
+
+public enum ExportFormat {
+
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,116 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
+import com.fkbinho.dscatalog.repositories.KeysetPageRepository;
+import com.fkbinho.dscatalog.services.exceptions.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque position for keyset pagination: the sort key of the last row of a page plus its id.
+ * Encoded as URL-safe Base64 of "sort:id:key", or "sort:id" when the key is null, so clients can
+ * only pass it back, never build it.
+ */
+public class KeysetCursor {
+
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_NAME = "name";
+
+    public static final int MAX_PAGE_SIZE = 2000;
+
+    private final String sort;
+    private final Long id;
+    private final String key;
+
+    public KeysetCursor(String sort, Long id, String key) {
+        this.sort = sort;
+        this.id = id;
+        this.key = key;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String encode() {
+        String raw = key == null ? sort + ":" + id : sort + ":" + id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length < 2) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new KeysetCursor(validSort(parts[0]), Long.valueOf(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Reads the page after {@code after} (or the first one) in {@code sort} order. One extra row
+     * is fetched to know if there is a next page without a COUNT query.
+     */
+    public static <T, D> CursorPageDTO<D> findPage(KeysetPageRepository<T> repository, String after, String sort,
+            int size, Function<T, Long> id, Function<T, String> name, Function<T, D> toDto, Long total) {
+        KeysetCursor cursor = after == null ? null : decode(after);
+        String sortKey = cursor == null ? validSort(sort) : cursor.getSort();
+        size = validSize(size);
+
+        Pageable limit = PageRequest.ofSize(size + 1);
+        boolean byName = SORT_BY_NAME.equals(sortKey);
+        List<T> list;
+        if (cursor == null) {
+            list = byName ? repository.findFirstPageOrderByName(limit) : repository.findFirstPageOrderById(limit);
+        } else if (!byName) {
+            list = repository.findNextPageOrderById(cursor.getId(), limit);
+        } else if (cursor.getKey() == null) {
+            list = repository.findNextPageOrderByNullName(cursor.getId(), limit);
+        } else {
+            list = repository.findNextPageOrderByName(cursor.getKey(), cursor.getId(), limit);
+        }
+        // Named rows ran out before the page filled up, so it goes on with the null names
+        if (byName && list.size() <= size && (cursor == null || cursor.getKey() != null)) {
+            list = new ArrayList<>(list);
+            Pageable rest = PageRequest.ofSize(size + 1 - list.size());
+            list.addAll(repository.findNextPageOrderByNullName(Long.MIN_VALUE, rest));
+        }
+
+        boolean hasNext = list.size() > size;
+        String nextCursor = null;
+        if (hasNext) {
+            list = list.subList(0, size);
+            T last = list.getLast();
+            nextCursor = new KeysetCursor(sortKey, id.apply(last), byName ? name.apply(last) : null).encode();
+        }
+        return new CursorPageDTO<>(list.stream().map(toDto).toList(), size, hasNext, nextCursor, total);
+    }
+
+    public static String validSort(String sort) {
+        if (SORT_BY_ID.equals(sort) || SORT_BY_NAME.equals(sort)) {
+            return sort;
+        }
+        throw new InvalidCursorException("Unsupported sort for cursor pagination: " + sort);
+    }
+
+    public static int validSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
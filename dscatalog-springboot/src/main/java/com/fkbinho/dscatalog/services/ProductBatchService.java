@@ -0,0 +1,160 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.BatchItemResultDTO;
+import com.fkbinho.dscatalog.dto.BatchResultDTO;
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.repositories.CategoryRepository;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts products in chunks of dscatalog.batch.size rows. Categories are resolved from
+ * one lookup table loaded up front and linked as detached instances, so a chunk
+ * issues no selects. Each chunk runs in its own transaction and is flushed as JDBC batches,
+ * then the persistence context is cleared so memory stays bounded by the chunk size.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductBatchService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dscatalog.batch.size}")
+    private int batchSize;
+
+    public BatchResultDTO insertAll(Iterator<ProductDTO> items) {
+        Map<Long, Category> categories = findCategories();
+        BatchResultDTO result = new BatchResultDTO();
+        List<ProductDTO> chunk = new ArrayList<>(batchSize);
+        int index = 0;
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == batchSize) {
+                insertChunk(chunk, index, categories).forEach(result::addItem);
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, index, categories).forEach(result::addItem);
+        }
+        return result;
+    }
+
+    Map<Long, Category> findCategories() {
+        return categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    List<BatchItemResultDTO> insertChunk(List<ProductDTO> chunk, int firstIndex,
+            Map<Long, Category> categories) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> persistChunk(chunk, firstIndex, categories));
+        } catch (DataAccessException | PersistenceException e) {
+            // The whole chunk was rolled back, so every row in it is reported as failed
+            String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            List<BatchItemResultDTO> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(BatchItemResultDTO.failed(firstIndex + i, message));
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * Persists one chunk inside the caller's transaction and returns one result per item, in order.
+     * Checked here rather than declared, because insertChunk calls it without going through the proxy.
+     */
+    public List<BatchItemResultDTO> persistChunk(List<ProductDTO> chunk, int firstIndex,
+            Map<Long, Category> categories) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException("persistChunk must run inside an existing transaction");
+        }
+        List<BatchItemResultDTO> results = new ArrayList<>(chunk.size());
+        List<Product> persisted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductDTO dto = chunk.get(i);
+            String error = validate(dto, categories);
+            if (error != null) {
+                results.add(BatchItemResultDTO.failed(firstIndex + i, error));
+                continue;
+            }
+            Product entity = new Product();
+            entity.setName(dto.getName());
+            entity.setDescription(dto.getDescription());
+            entity.setDate(dto.getDate());
+            entity.setImgUrl(dto.getImgUrl());
+            entity.setPrice(dto.getPrice());
+            for (CategoryDTO catDto : dto.getCategories()) {
+                entity.getCategories().add(categories.get(catDto.getId()));
+            }
+            entityManager.persist(entity);
+            persisted.add(entity);
+            results.add(BatchItemResultDTO.created(firstIndex + i, entity.getId()));
+        }
+
+        entityManager.flush();
+        for (Product entity : persisted) {
+            publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Operation.INSERT, entity));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private String validate(ProductDTO dto, Map<Long, Category> categories) {
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        for (CategoryDTO catDto : dto.getCategories()) {
+            if (catDto.getId() == null || !categories.containsKey(catDto.getId())) {
+                return "Category not found: " + catDto.getId();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.search.CategoryBitmapIndex;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductCategoryIndexService {
+
+    // Version of a deleted product, newer than any write that can still arrive for it
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final CategoryBitmapIndex index = new CategoryBitmapIndex();
+
+    // Newest version applied per product; DELETED marks removed ones
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Links come ordered by product, so each product is complete when the id changes
+        try (Stream<Object[]> links = repository.streamAllCategoryLinks()) {
+            Long current = null;
+            Long version = null;
+            Set<Long> categoryIds = new HashSet<>();
+            for (Object[] link : (Iterable<Object[]>) links::iterator) {
+                Long productId = (Long) link[0];
+                if (!productId.equals(current)) {
+                    if (current != null) {
+                        put(current, version, categoryIds);
+                    }
+                    current = productId;
+                    version = (Long) link[1];
+                    categoryIds = new HashSet<>();
+                }
+                if (link[2] != null) {
+                    categoryIds.add((Long) link[2]);
+                }
+            }
+            if (current != null) {
+                put(current, version, categoryIds);
+            }
+        }
+    }
+
+    // After-commit events of concurrent transactions can arrive out of order; only newer ones apply
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getId();
+        if (event.getOperation() == ProductChangedEvent.Operation.DELETE) {
+            apply(id, DELETED, () -> index.remove(id));
+        } else {
+            put(id, event.getVersion(), event.getCategoryIds());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAll(Collection<Long> all, Collection<Long> any, Collection<Long> none,
+            Pageable pageable) {
+        Roaring64NavigableMap matching = index.query(orEmpty(all), orEmpty(any), orEmpty(none));
+        long total = matching.getLongCardinality();
+
+        // Page over the bitmap in id order and fetch only the rows of that page
+        List<Long> ids = new ArrayList<>();
+        long end = Math.min(pageable.getOffset() + pageable.getPageSize(), total);
+        for (long i = pageable.getOffset(); i < end; i++) {
+            ids.add(matching.select(i));
+        }
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        Map<Long, Product> products = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> list = ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductDTO::new)
+                .toList();
+        return new PageImpl<>(list, pageable, total);
+    }
+
+    public Map<Long, Long> countByCategory(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        return index.countByCategory(orEmpty(all), orEmpty(any), orEmpty(none));
+    }
+
+    private void put(Long id, Long version, Set<Long> categoryIds) {
+        apply(id, version, () -> index.put(id, categoryIds));
+    }
+
+    private void apply(Long id, Long version, Runnable change) {
+        versions.compute(id, (key, current) -> {
+            if (current != null && current >= version) {
+                return current;
+            }
+            change.run();
+            return version;
+        });
+    }
+
+    private static Collection<Long> orEmpty(Collection<Long> ids) {
+        return ids == null ? List.of() : ids;
+    }
+}
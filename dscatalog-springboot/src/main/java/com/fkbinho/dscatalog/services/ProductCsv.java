@@ -0,0 +1,140 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * CSV layout shared by the product export and import: one product per line,
+ * category ids joined with '|' in the last column.
+ */
+public final class ProductCsv {
+
+    public static final String HEADER = "id,name,description,price,imgUrl,date,categories";
+
+    private ProductCsv() {
+    }
+
+    public static String format(ProductDTO dto) {
+        String categories = dto.getCategories().stream()
+                .map(cat -> String.valueOf(cat.getId()))
+                .collect(Collectors.joining("|"));
+        return String.join(",",
+                field(dto.getId()),
+                field(dto.getName()),
+                field(dto.getDescription()),
+                field(dto.getPrice()),
+                field(dto.getImgUrl()),
+                field(dto.getDate()),
+                field(categories));
+    }
+
+    /**
+     * Reads one record, following quoted fields across line breaks. Returns null at end of input.
+     */
+    public static List<String> readRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidPayloadException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Maps header names to column positions and checks the columns an import needs.
+     */
+    public static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new InvalidPayloadException("CSV header must contain name and price columns");
+        }
+        return columns;
+    }
+
+    /**
+     * Builds a product from one record. The id column, if present, is ignored.
+     */
+    public static ProductDTO parse(Map<String, Integer> columns, List<String> record) {
+        ProductDTO dto = new ProductDTO();
+        dto.setName(value(columns, record, "name"));
+        dto.setDescription(value(columns, record, "description"));
+        dto.setImgUrl(value(columns, record, "imgUrl"));
+        try {
+            String price = value(columns, record, "price");
+            dto.setPrice(price == null ? null : Double.valueOf(price));
+            String date = value(columns, record, "date");
+            dto.setDate(date == null ? null : Instant.parse(date));
+            String categories = value(columns, record, "categories");
+            if (categories != null) {
+                for (String id : categories.split("\\|")) {
+                    dto.getCategories().add(new CategoryDTO(Long.valueOf(id.trim()), null));
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidPayloadException("Invalid value: " + e.getMessage());
+        }
+        return dto;
+    }
+
+    private static String value(Map<String, Integer> columns, List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static String field(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,93 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.repositories.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream while reading it through a forward-only
+ * cursor. Rows are handled in chunks of dscatalog.export.chunk-size: the categories of a
+ * chunk are fetched with one IN query, the chunk is written and flushed, and the
+ * persistence context is cleared, so memory does not grow with the size of the table.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dscatalog.export.chunk-size}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(ProductCsv.HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Product> stream = repository.streamAllOrderById()) {
+            Iterator<Product> it = stream.iterator();
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == chunkSize || !it.hasNext()) {
+                    writeChunk(chunk, format, writer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // Categories are read with the chunk's links, so one deleted during the export is simply left out
+    private void writeChunk(List<Product> chunk, ExportFormat format, Writer writer) throws IOException {
+        List<Long> ids = chunk.stream().map(Product::getId).toList();
+        Map<Long, List<Category>> categories = repository.findCategoriesByProductIdIn(ids).stream()
+                .collect(Collectors.groupingBy(row -> (Long) row[0],
+                        Collectors.mapping(row -> (Category) row[1], Collectors.toList())));
+
+        for (Product entity : chunk) {
+            ProductDTO dto = new ProductDTO(entity);
+            for (Category category : categories.getOrDefault(entity.getId(), List.of())) {
+                dto.getCategories().add(new CategoryDTO(category));
+            }
+            writer.write(format == ExportFormat.CSV ? ProductCsv.format(dto) : objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,208 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.BatchItemResultDTO;
+import com.fkbinho.dscatalog.dto.ImportReportDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.ImportProgress;
+import com.fkbinho.dscatalog.repositories.ImportProgressRepository;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports products from an NDJSON or CSV body while it is being read. Rows are parsed one at a
+ * time and written in chunks of dscatalog.batch.size through {@link ProductBatchService}. Each
+ * chunk commits together with the import's progress row, so a failed or interrupted import can
+ * be sent again with the same importId and resumes after the last committed row.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductImportService {
+
+    public static final int MAX_IMPORT_ID_LENGTH = 64;
+
+    @Autowired
+    private ProductBatchService batchService;
+
+    @Autowired
+    private ImportProgressRepository progressRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dscatalog.batch.size}")
+    private int batchSize;
+
+    @Value("${dscatalog.import.max-errors}")
+    private int maxErrors;
+
+    public ImportReportDTO importNdjson(BufferedReader reader, String importId) throws IOException {
+        long[] lineNumber = {0};
+        return importRows(() -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return Row.of(lineNumber[0], objectMapper.readValue(line, ProductDTO.class));
+                } catch (JsonProcessingException e) {
+                    return Row.failed(lineNumber[0], "Malformed JSON");
+                }
+            }
+            return null;
+        }, importId);
+    }
+
+    public ImportReportDTO importCsv(BufferedReader reader, String importId) throws IOException {
+        List<String> header = ProductCsv.readRecord(reader);
+        if (header == null) {
+            throw new InvalidPayloadException("CSV header is missing");
+        }
+        Map<String, Integer> columns = ProductCsv.columns(header);
+        long[] rowNumber = {0};
+        return importRows(() -> {
+            List<String> record;
+            while (true) {
+                try {
+                    record = ProductCsv.readRecord(reader);
+                } catch (InvalidPayloadException e) {
+                    return Row.failed(++rowNumber[0], e.getMessage());
+                }
+                if (record == null) {
+                    return null;
+                }
+                rowNumber[0]++;
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                try {
+                    return Row.of(rowNumber[0], ProductCsv.parse(columns, record));
+                } catch (InvalidPayloadException e) {
+                    return Row.failed(rowNumber[0], e.getMessage());
+                }
+            }
+        }, importId);
+    }
+
+    private ImportReportDTO importRows(RowReader rows, String importId) throws IOException {
+        if (importId == null) {
+            importId = UUID.randomUUID().toString();
+        } else if (importId.length() > MAX_IMPORT_ID_LENGTH) {
+            throw new InvalidPayloadException("importId must be at most " + MAX_IMPORT_ID_LENGTH + " characters");
+        }
+
+        Map<Long, Category> categories = batchService.findCategories();
+        ImportProgress progress = progressRepository.findById(importId).orElse(new ImportProgress(importId));
+        ImportReportDTO report = new ImportReportDTO(importId, progress.getCommittedRows(), maxErrors);
+
+        List<Row> chunk = new ArrayList<>(batchSize);
+        Row row;
+        while ((row = rows.next()) != null) {
+            if (row.number() <= progress.getCommittedRows()) {
+                report.addSkipped();
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                progress = commitChunk(chunk, progress, categories, report);
+                if (progress == null) {
+                    return report;
+                }
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty() && commitChunk(chunk, progress, categories, report) == null) {
+            return report;
+        }
+        report.setCompleted(true);
+        return report;
+    }
+
+    /**
+     * Writes one chunk and its progress in a single transaction. Returns the saved progress,
+     * or null when the chunk was rolled back and the import has to stop there.
+     */
+    private ImportProgress commitChunk(List<Row> chunk, ImportProgress progress, Map<Long, Category> categories,
+            ImportReportDTO report) {
+        List<ProductDTO> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.dto() != null) {
+                valid.add(row.dto());
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        ImportProgress saved;
+        try {
+            saved = transaction.execute(status -> {
+                results.addAll(batchService.persistChunk(valid, 0, categories));
+                long created = results.stream().filter(r -> BatchItemResultDTO.CREATED.equals(r.getStatus())).count();
+                long lastRow = chunk.get(chunk.size() - 1).number();
+                return progressRepository.saveAndFlush(progress.advance(lastRow, created, chunk.size() - created));
+            });
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            long firstRow = chunk.get(0).number();
+            report.addMessage(firstRow, "Chunk rolled back, resume from row " + firstRow + ": "
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return null;
+        }
+
+        // Results come back in the order of the valid rows
+        int next = 0;
+        for (Row row : chunk) {
+            if (row.dto() == null) {
+                report.addError(row.number(), row.error());
+                continue;
+            }
+            BatchItemResultDTO result = results.get(next++);
+            if (BatchItemResultDTO.CREATED.equals(result.getStatus())) {
+                report.addCreated();
+            } else {
+                report.addError(row.number(), result.getMessage());
+            }
+        }
+        report.setCommittedRows(saved.getCommittedRows());
+        return saved;
+    }
+
+    private interface RowReader {
+
+        Row next() throws IOException;
+    }
+
+    private record Row(long number, ProductDTO dto, String error) {
+
+        static Row of(long number, ProductDTO dto) {
+            return new Row(number, dto, null);
+        }
+
+        static Row failed(long number, String error) {
+            return new Row(number, null, error);
+        }
+    }
+}
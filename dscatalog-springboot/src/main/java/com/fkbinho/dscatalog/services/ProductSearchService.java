@@ -0,0 +1,129 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.ProductSearchResultDTO;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.search.InvertedIndex;
+import com.fkbinho.dscatalog.search.ScoredDocument;
+import com.fkbinho.dscatalog.search.Tokenizer;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductSearchService {
+
+    private static final int MAX_RESULTS = 100;
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    // Version of a deleted product, newer than any write that can still arrive for it
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Name terms count twice so a match in the name outranks the same match in the description
+    private static final int NAME_WEIGHT = 2;
+
+    private final Tokenizer tokenizer = new Tokenizer();
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Long, ProductSearchResultDTO> stored = new ConcurrentHashMap<>();
+
+    // Newest version applied per product; DELETED marks removed ones
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository repository;
+
+    /**
+     * Loads the catalog through a forward-only cursor, clearing the persistence context every
+     * chunk. Goes through the same version check as the listener, so a row read before a later
+     * write or delete does not overwrite it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<Product> stream = repository.streamAllOrderById()) {
+            int count = 0;
+            for (Product entity : (Iterable<Product>) stream::iterator) {
+                Long id = entity.getId();
+                String name = entity.getName();
+                String description = entity.getDescription();
+                Double price = entity.getPrice();
+                String imgUrl = entity.getImgUrl();
+                apply(id, entity.getVersion(), () -> put(id, name, description, price, imgUrl));
+                if (++count % REBUILD_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // After-commit events of concurrent transactions can arrive out of order; only newer ones apply
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getId();
+        if (event.getOperation() == ProductChangedEvent.Operation.DELETE) {
+            apply(id, DELETED, () -> {
+                index.remove(id);
+                stored.remove(id);
+            });
+        } else {
+            apply(id, event.getVersion(), () -> put(id, event.getName(), event.getDescription(), event.getPrice(),
+                    event.getImgUrl()));
+        }
+    }
+
+    public List<ProductSearchResultDTO> search(String query, int limit) {
+        List<String> terms = tokenizer.tokenize(query);
+        List<ProductSearchResultDTO> result = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return result;
+        }
+        for (ScoredDocument doc : index.search(terms, Math.max(1, Math.min(limit, MAX_RESULTS)))) {
+            ProductSearchResultDTO hit = stored.get(doc.id());
+            if (hit != null) {
+                result.add(new ProductSearchResultDTO(hit.getId(), hit.getName(), hit.getPrice(), hit.getImgUrl(),
+                        doc.score()));
+            }
+        }
+        return result;
+    }
+
+    private void apply(Long id, Long version, Runnable change) {
+        versions.compute(id, (key, current) -> {
+            if (current != null && current >= version) {
+                return current;
+            }
+            change.run();
+            return version;
+        });
+    }
+
+    private void put(Long id, String name, String description, Double price, String imgUrl) {
+        List<String> terms = new ArrayList<>();
+        List<String> nameTerms = tokenizer.tokenize(name);
+        for (int i = 0; i < NAME_WEIGHT; i++) {
+            terms.addAll(nameTerms);
+        }
+        terms.addAll(tokenizer.tokenize(description));
+        stored.put(id, new ProductSearchResultDTO(id, name, price, imgUrl, null));
+        index.put(id, terms);
+    }
+}
@@ -1,40 +1,127 @@
 package com.fkbinho.dscatalog.services;
 
+import com.fkbinho.dscatalog.config.MetricsConfig;
 import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.ProductFilterDTO;
+import com.fkbinho.dscatalog.dto.ProductPatchDTO;
+import com.fkbinho.dscatalog.dto.ProductSummaryDTO;
+import com.fkbinho.dscatalog.dto.ProductVersionDTO;
+import com.fkbinho.dscatalog.dto.SliceDTO;
 import com.fkbinho.dscatalog.entities.Category;
 import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.entities.Tombstone;
 import com.fkbinho.dscatalog.repositories.CategoryRepository;
 import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.repositories.ProductSpecifications;
+import com.fkbinho.dscatalog.repositories.TombstoneRepository;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
 import com.fkbinho.dscatalog.services.exceptions.DatabaseException;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
+import com.fkbinho.dscatalog.services.exceptions.PreconditionFailedException;
 import com.fkbinho.dscatalog.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ProductService {
 
+    // Keeps IN lists well below the bind parameter limits of the supported databases
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private CountCache countCache;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAllPaged(Pageable pageable) {
         Page<Product> list = repository.findAll(pageable);
         return list.map(ProductDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllPaged(ProductFilterDTO filter, Pageable pageable) {
+        Page<Product> list = repository.findAll(specificationOf(filter), pageable);
+        return list.map(ProductDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> findAllSummaries(ProductFilterDTO filter, Pageable pageable) {
+        return filter.isEmpty()
+                ? repository.findAllSummaries(pageable)
+                : repository.findAllSummaries(specificationOf(filter), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> findAllPagedWithCategories(ProductFilterDTO filter, Pageable pageable) {
+        // Page only the ids first, then load those products with their categories in one query
+        Page<Long> ids = filter.isEmpty()
+                ? repository.findPageOfIds(pageable)
+                : repository.findPageOfIds(specificationOf(filter), pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Product> products = repository.findWithCategoriesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> list = ids.getContent().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(entity -> new ProductDTO(entity, entity.getCategories()))
+                .toList();
+        return new PageImpl<>(list, pageable, ids.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public SliceDTO<ProductDTO> findAllSliced(Pageable pageable, CountMode count) {
+        Slice<Product> slice = repository.findAllAsSlice(pageable);
+        Long total = switch (count) {
+            case EXACT -> repository.count();
+            case ESTIMATE -> countCache.get(CountCache.PRODUCTS, repository::count);
+            case NONE -> null;
+        };
+        return new SliceDTO<>(slice.map(ProductDTO::new).getContent(), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), total, total == null ? null : count == CountMode.EXACT);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> findAllByCursor(String after, String sort, int size, boolean count) {
+        Long total = count ? repository.count() : null;
+        return KeysetCursor.findPage(repository, after, sort, size, Product::getId, Product::getName, ProductDTO::new, total);
+    }
+
     @Transactional(readOnly = true)
     public ProductDTO findById(Long id) {
         Optional<Product> obj = repository.findById(id);
@@ -42,37 +129,131 @@ public class ProductService {
         return new ProductDTO(entity, entity.getCategories());
     }
 
+    @Transactional(readOnly = true)
+    public ProductVersionDTO findVersion(Long id) {
+        List<Object[]> rows = repository.findVersionsById(id);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        ProductVersionDTO dto = new ProductVersionDTO((Long) rows.get(0)[0]);
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                dto.getCategoryVersions().put((Long) row[1], (Long) row[2]);
+            }
+        }
+        return dto;
+    }
+
     @Transactional
     public ProductDTO insert(ProductDTO dto) {
         Product entity = new Product();
         copyDtoToEntity(dto, entity);
         entity = repository.save(entity);
+        publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Operation.INSERT, entity));
         return new ProductDTO(entity);
     }
 
     @Transactional
     public ProductDTO update(Long id, ProductDTO dto) {
+        return update(id, dto, null);
+    }
+
+    @Transactional
+    public ProductDTO update(Long id, ProductDTO dto, Long expectedVersion) {
         try {
             Product entity = repository.getReferenceById(id);
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
             copyDtoToEntity(dto, entity);
             entity = repository.save(entity);
+            // Flush so the returned version is the one that was written
+            repository.flush();
+            publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity));
             return new ProductDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("ID not found: " + id);
         }
     }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    @Transactional
+    public ProductDTO patch(Long id, ProductPatchDTO dto, Long expectedVersion) {
+        try {
+            Product entity = repository.getReferenceById(id);
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new PreconditionFailedException("Version mismatch for ID: " + id);
+            }
+            if (dto.getName() != null) {
+                entity.setName(dto.getName());
+            }
+            if (dto.getDescription() != null) {
+                entity.setDescription(dto.getDescription());
+            }
+            if (dto.getDate() != null) {
+                entity.setDate(dto.getDate());
+            }
+            if (dto.getImgUrl() != null) {
+                entity.setImgUrl(dto.getImgUrl());
+            }
+            if (dto.getPrice() != null) {
+                entity.setPrice(dto.getPrice());
+            }
+            if (dto.getCategories() != null) {
+                updateCategories(entity, dto.getCategories());
+            }
+            entity = repository.save(entity);
+            repository.flush();
+            publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity));
+            return new ProductDTO(entity);
+        } catch (EntityNotFoundException e) {
+            throw new ResourceNotFoundException("ID not found: " + id);
+        }
+    }
+
+    @Transactional
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
+        // Set-based DELETEs only: no existence check and no entity load before removing
+        int deleted;
+        try {
+            repository.deleteCategoryLinksByProductId(id);
+            deleted = repository.deleteProductById(id);
+        }
+        catch (DataIntegrityViolationException e) {
+            throw new DatabaseException("Integrity violation");
+        }
+        if (deleted == 0) {
             throw new ResourceNotFoundException("ID not found " + id);
         }
+        tombstoneRepository.save(new Tombstone(Tombstone.TYPE_PRODUCT, id));
+        publisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    @Transactional
+    public int deleteAll(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<Long> deletedIds = new ArrayList<>();
+        int deleted = 0;
         try {
-            repository.deleteById(id);
+            for (int i = 0; i < distinctIds.size(); i += DELETE_CHUNK_SIZE) {
+                List<Long> chunk = distinctIds.subList(i, Math.min(i + DELETE_CHUNK_SIZE, distinctIds.size()));
+                // Only ids that exist are deleted, tombstoned and announced
+                List<Long> existing = repository.findExistingIds(chunk);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                repository.deleteCategoryLinksByProductIdIn(existing);
+                deleted += repository.deleteProductsByIdIn(existing);
+                deletedIds.addAll(existing);
+            }
         }
         catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Integrity violation");
         }
+        tombstoneRepository.saveAll(deletedIds.stream()
+                .map(id -> new Tombstone(Tombstone.TYPE_PRODUCT, id))
+                .toList());
+        deletedIds.forEach(id -> publisher.publishEvent(ProductChangedEvent.deleted(id)));
+        return deleted;
     }
 
     private void copyDtoToEntity(ProductDTO dto, Product entity) {
@@ -83,10 +264,39 @@ public class ProductService {
         entity.setImgUrl(dto.getImgUrl());
         entity.setPrice(dto.getPrice());
 
-        entity.getCategories().clear();
-        for(CategoryDTO catDto : dto.getCategories()) {
-            Category category = categoryRepository.getReferenceById(catDto.getId());
-            entity.getCategories().add(category);
+        updateCategories(entity, dto.getCategories());
+    }
+
+    // Apply only the difference, so just the changed tb_product_category rows are written; new
+    // category ids come from the second-level cache, and those not cached from a single IN query
+    private void updateCategories(Product entity, List<CategoryDTO> categories) {
+        Set<Long> ids = categories.stream().map(CategoryDTO::getId).collect(Collectors.toSet());
+        if (ids.contains(null)) {
+            throw new InvalidPayloadException("Category id is required");
+        }
+        entity.getCategories().removeIf(category -> !ids.contains(category.getId()));
+
+        Set<Long> current = entity.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+        List<Long> added = ids.stream().filter(catId -> !current.contains(catId)).toList();
+        if (added.isEmpty()) {
+            return;
+        }
+        List<Category> found = categoryRepository.findAllByIdCached(added);
+        if (found.size() != added.size()) {
+            Set<Long> foundIds = found.stream().map(Category::getId).collect(Collectors.toSet());
+            List<Long> missing = added.stream().filter(catId -> !foundIds.contains(catId)).toList();
+            throw new InvalidPayloadException("Category not found: " + missing);
+        }
+        entity.getCategories().addAll(found);
+    }
+
+    private static Specification<Product> specificationOf(ProductFilterDTO filter) {
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new InvalidPayloadException("minPrice must not be greater than maxPrice");
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new InvalidPayloadException("from must not be after to");
         }
+        return ProductSpecifications.of(filter);
     }
 }
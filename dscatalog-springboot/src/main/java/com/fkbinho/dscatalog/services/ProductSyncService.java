@@ -0,0 +1,129 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.config.MetricsConfig;
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.SyncDTO;
+import com.fkbinho.dscatalog.dto.TombstoneDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.entities.Tombstone;
+import com.fkbinho.dscatalog.repositories.CategoryRepository;
+import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.repositories.TombstoneRepository;
+import com.fkbinho.dscatalog.services.exceptions.ResyncRequiredException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class ProductSyncService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Value("${dscatalog.sync.grace}")
+    private Duration grace;
+
+    @Value("${dscatalog.sync.tombstone-retention}")
+    private Duration tombstoneRetention;
+
+    @Transactional(readOnly = true)
+    public SyncDTO findChangesSince(String since, int limit) {
+        SyncToken from = since == null ? SyncToken.START : SyncToken.decode(since);
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // Deletions after the client's copy was taken may already be pruned
+        Instant now = Instant.now();
+        if (from.getIssuedAt() != null && from.getIssuedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new ResyncRequiredException("Sync token is older than the tombstone retention of "
+                    + tombstoneRetention + ", sync again from the start");
+        }
+
+        // updatedAt is stamped when a row is flushed, not when its transaction commits. Rows stamped
+        // inside the grace period may belong to transactions that have not committed yet, so they are
+        // left for the next call; a write transaction that commits more than the grace period after
+        // its flush can still be missed, which is why grace must exceed the longest write transaction
+        Instant until = now.minus(grace);
+
+        // Each source is read in (timestamp, id) order from its index; one extra row tells if there is more
+        Pageable fetch = PageRequest.ofSize(limit + 1);
+        List<Change> changes = new ArrayList<>();
+        for (Category entity : categoryRepository.findChangedSince(from.getTimestamp(),
+                from.idAfterFor(SyncToken.CATEGORY), until, fetch)) {
+            changes.add(new Change(new SyncToken(entity.getUpdatedAt(), SyncToken.CATEGORY, entity.getId()), entity));
+        }
+        for (Product entity : productRepository.findChangedSince(from.getTimestamp(),
+                from.idAfterFor(SyncToken.PRODUCT), until, fetch)) {
+            changes.add(new Change(new SyncToken(entity.getUpdatedAt(), SyncToken.PRODUCT, entity.getId()), entity));
+        }
+        for (Tombstone entity : tombstoneRepository.findDeletedSince(from.getTimestamp(),
+                from.idAfterFor(SyncToken.TOMBSTONE), until, fetch)) {
+            changes.add(new Change(new SyncToken(entity.getDeletedAt(), SyncToken.TOMBSTONE, entity.getId()), entity));
+        }
+
+        changes.sort(Comparator.comparing(Change::position, SyncToken.ORDER));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        SyncToken next = changes.isEmpty() ? from : changes.getLast().position();
+
+        List<CategoryDTO> categories = new ArrayList<>();
+        List<Long> productIds = new ArrayList<>();
+        List<TombstoneDTO> deleted = new ArrayList<>();
+        for (Change change : changes) {
+            switch (change.entity()) {
+                case Category entity -> categories.add(new CategoryDTO(entity));
+                case Product entity -> productIds.add(entity.getId());
+                case Tombstone entity -> deleted.add(new TombstoneDTO(entity));
+                default -> throw new IllegalStateException("Unexpected change " + change.entity());
+            }
+        }
+
+        // Same instances as above, now with their categories loaded in one query
+        List<ProductDTO> products = new ArrayList<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findWithCategoriesByIdIn(productIds);
+            for (Change change : changes) {
+                if (change.entity() instanceof Product entity) {
+                    products.add(new ProductDTO(entity, entity.getCategories()));
+                }
+            }
+        }
+        return new SyncDTO(categories, products, deleted, next.issuedAt(until).encode(), hasMore);
+    }
+
+    /**
+     * Drops tombstones older than dscatalog.sync.tombstone-retention. Tokens issued before that
+     * are refused, so no client can miss a pruned deletion.
+     */
+    @Scheduled(fixedDelayString = "${dscatalog.sync.tombstone-prune-interval}")
+    @Transactional
+    public int pruneTombstones() {
+        return tombstoneRepository.deleteDeletedBefore(Instant.now().minus(tombstoneRetention));
+    }
+
+    private record Change(SyncToken position, Object entity) {
+    }
+}
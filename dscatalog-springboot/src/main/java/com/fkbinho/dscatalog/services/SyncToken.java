@@ -0,0 +1,103 @@
+package com.fkbinho.dscatalog.services;
+
+import com.fkbinho.dscatalog.services.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in the delta-sync stream: the change timestamp, source and id of the last change a
+ * client received. Changes are ordered by (timestamp, source, id), so rows sharing a timestamp
+ * are never skipped or repeated. Encoded like {@link KeysetCursor}, together with the time up to
+ * which the client's copy is complete, so a token older than the tombstone retention is refused.
+ */
+public class SyncToken {
+
+    // Order of the sources among changes with the same timestamp
+    public static final int CATEGORY = 0;
+    public static final int PRODUCT = 1;
+    public static final int TOMBSTONE = 2;
+
+    public static final SyncToken START = new SyncToken(Instant.EPOCH, -1, 0L);
+
+    public static final Comparator<SyncToken> ORDER = Comparator
+            .comparing(SyncToken::getTimestamp)
+            .thenComparingInt(SyncToken::getSource)
+            .thenComparing(SyncToken::getId);
+
+    private final Instant timestamp;
+    private final int source;
+    private final Long id;
+    private final Instant issuedAt;
+
+    public SyncToken(Instant timestamp, int source, Long id) {
+        this(timestamp, source, id, null);
+    }
+
+    public SyncToken(Instant timestamp, int source, Long id, Instant issuedAt) {
+        this.timestamp = timestamp;
+        this.source = source;
+        this.id = id;
+        this.issuedAt = issuedAt;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public SyncToken issuedAt(Instant issuedAt) {
+        return new SyncToken(timestamp, source, id, issuedAt);
+    }
+
+    /**
+     * Id after which rows of {@code source} at exactly this timestamp are still due.
+     */
+    public Long idAfterFor(int source) {
+        if (source < this.source) {
+            return Long.MAX_VALUE;
+        }
+        return source == this.source ? id : Long.MIN_VALUE;
+    }
+
+    public String encode() {
+        String raw = micros(timestamp) + ":" + source + ":" + id + (issuedAt == null ? "" : ":" + micros(issuedAt));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length < 3) {
+                throw new InvalidCursorException("Malformed sync token");
+            }
+            Instant issuedAt = parts.length == 4 ? instant(parts[3]) : null;
+            return new SyncToken(instant(parts[0]), Integer.parseInt(parts[1]), Long.valueOf(parts[2]), issuedAt);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed sync token");
+        }
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant instant(String micros) {
+        return Instant.EPOCH.plus(Long.parseLong(micros), ChronoUnit.MICROS);
+    }
+}
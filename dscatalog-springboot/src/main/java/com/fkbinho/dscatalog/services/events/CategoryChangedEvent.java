@@ -0,0 +1,46 @@
+package com.fkbinho.dscatalog.services.events;
+
+import com.fkbinho.dscatalog.entities.Category;
+
+/**
+ * Category write published by CategoryService and consumed after commit, like
+ * {@link ProductChangedEvent}.
+ */
+public class CategoryChangedEvent {
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final Long id;
+    private final Long version;
+    private final Operation operation;
+
+    private CategoryChangedEvent(Long id, Long version, Operation operation) {
+        this.id = id;
+        this.version = version;
+        this.operation = operation;
+    }
+
+    public static CategoryChangedEvent of(Operation operation, Category entity) {
+        return new CategoryChangedEvent(entity.getId(), entity.getVersion(), operation);
+    }
+
+    public static CategoryChangedEvent deleted(Long id) {
+        return new CategoryChangedEvent(id, null, Operation.DELETE);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,92 @@
+package com.fkbinho.dscatalog.services.events;
+
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of a product write, published by ProductService and consumed after commit by the
+ * in-memory read models, so listeners never touch a detached entity.
+ */
+public class ProductChangedEvent {
+
+    public enum Operation {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final Long id;
+    private final Long version;
+    private final Operation operation;
+    private final String name;
+    private final String description;
+    private final Double price;
+    private final String imgUrl;
+    private final Instant date;
+    private final Set<Long> categoryIds;
+
+    private ProductChangedEvent(Long id, Long version, Operation operation, String name, String description,
+                                Double price, String imgUrl, Instant date, Set<Long> categoryIds) {
+        this.id = id;
+        this.version = version;
+        this.operation = operation;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.imgUrl = imgUrl;
+        this.date = date;
+        this.categoryIds = categoryIds;
+    }
+
+    public static ProductChangedEvent of(Operation operation, Product entity) {
+        Set<Long> categoryIds = entity.getCategories().stream()
+                .map(Category::getId)
+                .collect(Collectors.toUnmodifiableSet());
+        return new ProductChangedEvent(entity.getId(), entity.getVersion(), operation, entity.getName(),
+                entity.getDescription(), entity.getPrice(), entity.getImgUrl(), entity.getDate(), categoryIds);
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(id, null, Operation.DELETE, null, null, null, null, null, Set.of());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public Instant getDate() {
+        return date;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.services.exceptions;
+
+public class InvalidCursorException extends RuntimeException{
+
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
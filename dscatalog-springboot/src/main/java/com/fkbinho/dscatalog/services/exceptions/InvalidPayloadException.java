@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.services.exceptions;
+
+public class InvalidPayloadException extends RuntimeException{
+
+    public InvalidPayloadException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.services.exceptions;
+
+public class ResyncRequiredException extends RuntimeException {
+
+    public ResyncRequiredException(String msg) {
+        super(msg);
+    }
+}
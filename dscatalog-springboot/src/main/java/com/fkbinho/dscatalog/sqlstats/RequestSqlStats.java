@@ -0,0 +1,93 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Statements issued and time spent in JDBC by the current request thread. Hibernate reports into it
+ * through {@link SqlStatsInspector} and {@link SqlTimingListener}; {@link SqlStatsFilter} opens and
+ * closes it around each request.
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\([^)]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlStatsMode mode;
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    private int count;
+    private long nanos;
+    private final Map<String, Integer> selectShapes = new HashMap<>();
+
+    public RequestSqlStats(SqlStatsMode mode, int maxStatements, int maxRepeats) {
+        this.mode = mode;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    public static void start(RequestSqlStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static Optional<RequestSqlStats> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        count++;
+        if (mode == SqlStatsMode.FAIL && count > maxStatements) {
+            throw new SqlBudgetExceededException("Request exceeded the budget of " + maxStatements + " SQL statements");
+        }
+        String shape = shapeOf(sql);
+        if (shape.startsWith("select")) {
+            int repeats = selectShapes.merge(shape, 1, Integer::sum);
+            if (mode == SqlStatsMode.FAIL && repeats > maxRepeats) {
+                throw new SqlBudgetExceededException("Possible N+1: same query ran " + repeats + " times: " + shape);
+            }
+        }
+    }
+
+    void recordTime(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    public boolean isOverBudget() {
+        return count > maxStatements;
+    }
+
+    /**
+     * The most repeated select shape when it ran more than the allowed number of times, otherwise empty.
+     */
+    public Optional<Map.Entry<String, Integer>> repeatedQuery() {
+        return selectShapes.entrySet().stream()
+                .filter(e -> e.getValue() > maxRepeats)
+                .max(Map.Entry.comparingByValue());
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,79 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Counts the SQL statements of each request and logs the requests that go over
+ * dscatalog.sql-stats.max-statements or repeat one select more than dscatalog.sql-stats.max-repeats
+ * times. In FAIL mode the statement past the limit throws instead, failing the request.
+ */
+@Component
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-SQL-Count";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Value("${dscatalog.sql-stats.mode}")
+    private SqlStatsMode mode;
+
+    @Value("${dscatalog.sql-stats.max-statements}")
+    private int maxStatements;
+
+    @Value("${dscatalog.sql-stats.max-repeats}")
+    private int maxRepeats;
+
+    @Value("${dscatalog.sql-stats.excluded-paths}")
+    private List<String> excludedPaths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (mode == SqlStatsMode.OFF) {
+            return true;
+        }
+        // Without the context path and path parameters, so exclusions hold wherever the app is mounted
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        return excludedPaths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = new RequestSqlStats(mode, maxStatements, maxRepeats);
+        RequestSqlStats.start(stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.clear();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestSqlStats stats) {
+        if (stats.isOverBudget()) {
+            log.warn("{} {} ran {} SQL statements ({} ms), budget is {}", request.getMethod(),
+                    request.getRequestURI(), stats.getCount(), stats.getMillis(), maxStatements);
+        }
+        stats.repeatedQuery().ifPresent(e -> log.warn("{} {} possible N+1, query ran {} times: {}",
+                request.getMethod(), request.getRequestURI(), e.getValue(), e.getKey()));
+        log.debug("{} {} ran {} SQL statements ({} ms)", request.getMethod(), request.getRequestURI(),
+                stats.getCount(), stats.getMillis());
+    }
+}
@@ -0,0 +1,15 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered through hibernate.session_factory.statement_inspector; sees every statement Hibernate prepares.
+ */
+public class SqlStatsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats.current().ifPresent(stats -> stats.recordStatement(sql));
+        return sql;
+    }
+}
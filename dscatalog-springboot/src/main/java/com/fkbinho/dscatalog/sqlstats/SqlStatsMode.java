@@ -0,0 +1,8 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+public enum SqlStatsMode {
+
+    OFF,
+    WARN,
+    FAIL
+}
@@ -0,0 +1,33 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the statement count and JDBC time to responses with a body, just before it is written,
+ * while the headers can still be changed.
+ */
+@ControllerAdvice
+public class SqlStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestSqlStats.current().ifPresent(stats -> {
+            response.getHeaders().set(SqlStatsFilter.COUNT_HEADER, String.valueOf(stats.getCount()));
+            response.getHeaders().set(SqlStatsFilter.TIME_HEADER, String.valueOf(stats.getMillis()));
+        });
+        return body;
+    }
+}
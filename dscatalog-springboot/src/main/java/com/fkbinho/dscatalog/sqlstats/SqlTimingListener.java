@@ -0,0 +1,35 @@
+package com.fkbinho.dscatalog.sqlstats;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered through hibernate.session.events.auto, one instance per session, so the start
+ * timestamps need no synchronization.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        long elapsed = System.nanoTime() - executeStart;
+        RequestSqlStats.current().ifPresent(stats -> stats.recordTime(elapsed));
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        long elapsed = System.nanoTime() - batchStart;
+        RequestSqlStats.current().ifPresent(stats -> stats.recordTime(elapsed));
+    }
+}
@@ -1,5 +1,7 @@
 package com.fkbinho.dscatalog.repositories;
 
+import com.fkbinho.dscatalog.dto.ProductFilterDTO;
+import com.fkbinho.dscatalog.dto.ProductSummaryDTO;
 import com.fkbinho.dscatalog.entities.Product;
 import com.fkbinho.dscatalog.tests.Factory;
 import org.junit.jupiter.api.Assertions;
@@ -7,7 +9,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @DataJpaTest
@@ -16,6 +24,9 @@ public class ProductRepositoryTests {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private long existingId;
     private long nonExistingId;
     private long countTotalProducts;
@@ -64,4 +75,89 @@ public class ProductRepositoryTests {
         // Test if the result is empty
         Assertions.assertFalse(result.isPresent());
     }
+
+    @Test
+    public void findAllWithFilterShouldReturnProductsInPriceRange() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setMinPrice(2000.0);
+        filter.setMaxPrice(2300.0);
+
+        Page<Product> result = repository.findAll(ProductSpecifications.of(filter), PageRequest.of(0, 10));
+
+        Assertions.assertEquals(4, result.getTotalElements());
+    }
+
+    @Test
+    public void findAllWithFilterShouldReturnProductsOfAnyGivenCategory() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setCategoryId(List.of(1L, 2L));
+
+        Page<Product> result = repository.findAll(ProductSpecifications.of(filter), PageRequest.of(0, 10));
+
+        // Products 1 and 5 are in category 2, product 2 is in categories 1 and 3
+        Assertions.assertEquals(3, result.getTotalElements());
+    }
+
+    @Test
+    public void findAllWithFilterShouldCombineNamePrefixAndCategory() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setName("PC Gamer");
+        filter.setCategoryId(List.of(3L));
+
+        Page<Product> result = repository.findAll(ProductSpecifications.of(filter), PageRequest.of(0, 30));
+
+        Assertions.assertEquals(21, result.getTotalElements());
+    }
+
+    @Test
+    public void findPageOfIdsWithFilterShouldPageMatchingIdsInSortOrder() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setCategoryId(List.of(1L, 2L));
+
+        Page<Long> result = repository.findPageOfIds(ProductSpecifications.of(filter),
+                PageRequest.of(0, 2, Sort.by("id")));
+
+        Assertions.assertEquals(3, result.getTotalElements());
+        Assertions.assertEquals(List.of(1L, 2L), result.getContent());
+    }
+
+    @Test
+    public void findAllSummariesWithFilterShouldReturnOnlyMatchingProducts() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setMinPrice(2000.0);
+        filter.setMaxPrice(2300.0);
+
+        Page<ProductSummaryDTO> result = repository.findAllSummaries(ProductSpecifications.of(filter),
+                PageRequest.of(0, 10));
+
+        Assertions.assertEquals(4, result.getTotalElements());
+        Assertions.assertTrue(result.getContent().stream()
+                .allMatch(dto -> dto.getPrice() >= 2000.0 && dto.getPrice() <= 2300.0));
+    }
+
+    @Test
+    public void filterPredicatesShouldNeverScanProductTable() {
+        // Same predicates ProductSpecifications generates, in every combination
+        List<String> predicates = List.of(
+                "p.price >= 100",
+                "p.price <= 2000",
+                "p.date >= TIMESTAMP '2020-01-01 00:00:00'",
+                "p.date < TIMESTAMP '2021-01-01 00:00:00'",
+                "p.name LIKE 'PC%'",
+                "p.id IN (SELECT pc.product_id FROM tb_product_category pc WHERE pc.category_id IN (1, 2))");
+
+        for (int mask = 1; mask < 1 << predicates.size(); mask++) {
+            List<String> where = new ArrayList<>();
+            for (int i = 0; i < predicates.size(); i++) {
+                if ((mask & 1 << i) != 0) {
+                    where.add(predicates.get(i));
+                }
+            }
+            String sql = "EXPLAIN SELECT p.id FROM tb_product p WHERE " + String.join(" AND ", where);
+            String plan = String.valueOf(entityManager.getEntityManager().createNativeQuery(sql).getSingleResult());
+
+            Assertions.assertFalse(plan.contains("TB_PRODUCT.tableScan"), () -> "Table scan for " + where + ":\n" + plan);
+            Assertions.assertFalse(plan.contains("TB_PRODUCT_CATEGORY.tableScan"), () -> "Table scan for " + where + ":\n" + plan);
+        }
+    }
 }
@@ -2,22 +2,43 @@ package com.fkbinho.dscatalog.resources;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.services.ChangeFeedService;
+import com.fkbinho.dscatalog.services.SyncToken;
+import com.fkbinho.dscatalog.sqlstats.SqlStatsFilter;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
 import com.fkbinho.dscatalog.tests.Factory;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// Fail requests that go over the SQL budget or repeat a query; delta sync has no grace period
+// because the tests read their own uncommitted writes
+@SpringBootTest(properties = {"dscatalog.sql-stats.mode=FAIL", "dscatalog.sync.grace=0s"})
 @AutoConfigureMockMvc
 @Transactional
 public class ProductResourceIT {
@@ -28,6 +49,12 @@ public class ProductResourceIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ChangeFeedService changeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private long existingId;
     private long nonExistingId;
     private long countTotalProducts;
@@ -54,6 +81,460 @@ public class ProductResourceIT {
         result.andExpect(jsonPath("$.content[2].name").value("PC Gamer Alfa"));
     }
 
+    @Test
+    public void findAllShouldServeRepeatedPageFromResponseCache() throws Exception {
+
+        String first = mockMvc.perform(get("/products?page=0&size=7&sort=name,asc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache", "MISS"))
+                .andReturn().getResponse().getContentAsString();
+
+        ResultActions result =
+                mockMvc.perform(get("/products?sort=name,asc&size=7&page=0")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().string("X-Cache", "HIT"));
+        result.andExpect(content().json(first));
+
+        ResultActions gzipped =
+                mockMvc.perform(get("/products?page=0&size=7&sort=name,asc")
+                        .header("Accept-Encoding", "gzip")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        gzipped.andExpect(status().isOk());
+        gzipped.andExpect(header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    public void findAllShouldReturnCategoriesWhenIncludeCategories() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products?page=0&size=12&sort=name,asc&include=categories")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].categories[0].name").value("Computadores"));
+    }
+
+    @Test
+    public void findAllShouldApplyFilterWhenIncludeCategories() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products?page=0&size=12&sort=name,asc&include=categories&maxPrice=200")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(2));
+        result.andExpect(jsonPath("$.content[0].name").value("Rails for Dummies"));
+        result.andExpect(jsonPath("$.content[1].name").value("The Lord of the Rings"));
+        result.andExpect(jsonPath("$.content[1].categories[0].id").value(2));
+    }
+
+    @Test
+    public void findAllShouldApplyFilterWhenViewIsSummary() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products?page=0&size=12&view=summary&name=Mac")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(1));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+    }
+
+    @Test
+    public void findAllShouldReturnBadRequestWhenSummaryFilterRangeIsInverted() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products?view=summary&minPrice=500&maxPrice=100")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findAllShouldReturnSummariesWithoutDescriptionWhenViewIsSummary() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products?page=0&size=12&sort=name,asc&view=summary")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
+        result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$.content[0].price").exists());
+        result.andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnBadRequestWhenCursorIsMalformed() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/cursor?after=not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchShouldReturnRankedProductsWhenNameMatches() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/search?q=macbook")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$[0].name").value("Macbook Pro"));
+        result.andExpect(jsonPath("$[0].score").exists());
+    }
+
+    @Test
+    public void findByIdShouldReportSqlStatementCount() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(header().exists("X-SQL-Count"));
+        result.andExpect(header().exists("X-SQL-Time-Ms"));
+    }
+
+    @Test
+    public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        String eTag = mockMvc.perform(get("/products/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        ResultActions result =
+                mockMvc.perform(get("/products/{id}", existingId)
+                        .header("If-None-Match", eTag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+        ProductDTO productDTO = Factory.createProductDTO();
+
+        String jsonBody = objectMapper.writeValueAsString(productDTO);
+
+        ResultActions result =
+                mockMvc.perform(put("/products/{id}", existingId)
+                        .header("If-Match", "\"999-0\"")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void insertBatchShouldReportCreatedAndFailedItems() throws Exception {
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+        ProductDTO invalid = Factory.createProductDTO();
+        invalid.setId(null);
+        invalid.setName("");
+
+        String jsonBody = objectMapper.writeValueAsString(List.of(valid, invalid));
+
+        ResultActions result =
+                mockMvc.perform(post("/products/batch")
+                        .content(jsonBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.created").value(1));
+        result.andExpect(jsonPath("$.failed").value(1));
+        result.andExpect(jsonPath("$.items[0].id").exists());
+        result.andExpect(jsonPath("$.items[1].status").value("FAILED"));
+    }
+
+    @Test
+    public void sqlStatsShouldSkipExcludedPathsUnderContextPath() throws Exception {
+        ProductDTO valid = Factory.createProductDTO();
+        valid.setId(null);
+
+        ResultActions excluded =
+                mockMvc.perform(post("/api/products/batch").contextPath("/api")
+                        .content(objectMapper.writeValueAsString(List.of(valid)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+        ResultActions counted =
+                mockMvc.perform(get("/api/products/{id}", existingId).contextPath("/api")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        excluded.andExpect(status().isOk());
+        excluded.andExpect(header().doesNotExist(SqlStatsFilter.COUNT_HEADER));
+        counted.andExpect(status().isOk());
+        counted.andExpect(header().exists(SqlStatsFilter.COUNT_HEADER));
+    }
+
+    @Test
+    public void exportShouldStreamEveryProductAsCsv() throws Exception {
+
+        MvcResult started =
+                mockMvc.perform(get("/products/export?format=CSV"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+        result.andExpect(status().isOk());
+        String[] lines = result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(countTotalProducts + 1, lines.length);
+        assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportShouldStreamEveryChunkWithinAsyncTimeout() throws Exception {
+        // The export reads in its own transaction on another thread, so the extra rows are committed
+        // with plain SQL: no change events, nothing left behind for the other tests
+        jdbcTemplate.update("INSERT INTO tb_product (id, name, price, date, description, img_url) "
+                + "SELECT 100000 + x, 'Export product ' || x, 10.0, TIMESTAMP WITH TIME ZONE '2020-07-13T20:50:07Z', "
+                + "'Export', 'https://img.com/export.png' FROM SYSTEM_RANGE(1, 1200)");
+        jdbcTemplate.update("INSERT INTO tb_product_category (product_id, category_id) "
+                + "SELECT 100000 + x, 1 FROM SYSTEM_RANGE(1, 1200)");
+        try {
+            MvcResult started =
+                    mockMvc.perform(get("/products/export?format=NDJSON"))
+                            .andExpect(request().asyncStarted())
+                            .andReturn();
+
+            ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+            // Verify that the export is not bound to the container's default async timeout
+            assertEquals(Duration.ofMinutes(30).toMillis(), started.getRequest().getAsyncContext().getTimeout());
+            // Verify that the rows of all three chunks of 500 were written
+            result.andExpect(status().isOk());
+            String body = result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            assertEquals(countTotalProducts + 1200, body.lines().count());
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id > 100000");
+            jdbcTemplate.update("DELETE FROM tb_product WHERE id > 100000");
+        }
+    }
+
+    @Test
+    public void findAllByCategoryShouldCombineCategoriesWithBitmapOperations() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/by-category?all=3&none=1&page=0&size=5")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // Category 3 holds 23 products; product 2 is also in category 1
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.totalElements").value(22));
+        result.andExpect(jsonPath("$.content.length()").value(5));
+        result.andExpect(jsonPath("$.content[0].id").value(3));
+        result.andExpect(jsonPath("$.content[1].id").value(4));
+    }
+
+    @Test
+    public void countByCategoryShouldCountMatchingProductsPerCategory() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/by-category/counts?all=3")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$['3']").value(23));
+        result.andExpect(jsonPath("$['1']").value(1));
+    }
+
+    @Test
+    public void changesShouldReturnRetainedEventsFromOffset() throws Exception {
+        String from = changeFeed.nextOffset();
+        changeFeed.onProductChanged(ProductChangedEvent.deleted(nonExistingId));
+
+        ResultActions result =
+                mockMvc.perform(get("/changes?from={from}&limit=10", from)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.length()").value(1));
+        result.andExpect(jsonPath("$[0].offset").value(from));
+        result.andExpect(jsonPath("$[0].id").value(nonExistingId));
+    }
+
+    @Test
+    public void changesShouldReturnGoneWhenOffsetIsFromAnEarlierRun() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/changes?from={from}", "0:0")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isGone());
+    }
+
+    @Test
+    public void changesShouldReturnBadRequestWhenOffsetIsMalformed() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/changes?from={from}", "12")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void changesStreamShouldSendResetWhenLastEventIdIsFromAnEarlierRun() throws Exception {
+
+        MvcResult started =
+                mockMvc.perform(get("/changes/stream")
+                                .header("Last-Event-ID", "0:41")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        String body = "";
+        for (int i = 0; i < 50 && !body.contains("event:reset"); i++) {
+            Thread.sleep(100);
+            body = started.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:reset"), body);
+        assertTrue(body.contains(changeFeed.nextOffset()), body);
+    }
+
+    @Test
+    public void changesStreamShouldReplayEventsFromOffset() throws Exception {
+        String from = changeFeed.nextOffset();
+        changeFeed.onProductChanged(ProductChangedEvent.deleted(nonExistingId));
+
+        MvcResult started =
+                mockMvc.perform(get("/changes/stream?from={from}", from)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // The subscriber thread writes the replayed event shortly after the request starts
+        String body = "";
+        for (int i = 0; i < 50 && !body.contains("event:change"); i++) {
+            Thread.sleep(100);
+            body = started.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("id:" + from), body);
+        assertTrue(body.contains("\"id\":" + nonExistingId), body);
+    }
+
+    @Test
+    public void findChangesShouldPageThroughCatalogWithoutOverlap() throws Exception {
+
+        String first = mockMvc.perform(get("/products/changes?limit=10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(true))
+                // Seed categories were stamped no later than the seed products and sort first
+                .andExpect(jsonPath("$.categories.length()").value(3))
+                .andExpect(jsonPath("$.products.length()").value(7))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(first, "$.nextToken");
+        List<Integer> firstIds = JsonPath.read(first, "$.products[*].id");
+
+        String second = mockMvc.perform(get("/products/changes?limit=10&since={token}", token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(10))
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> secondIds = JsonPath.read(second, "$.products[*].id");
+
+        assertTrue(secondIds.stream().noneMatch(firstIds::contains));
+    }
+
+    @Test
+    public void findChangesShouldReturnOnlyUpdatesAndTombstonesSinceToken() throws Exception {
+
+        String all = mockMvc.perform(get("/products/changes?limit=1000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(all, "$.nextToken");
+
+        mockMvc.perform(delete("/products/{id}", existingId)).andExpect(status().isNoContent());
+        mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"price\": 2000.0}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        ResultActions result =
+                mockMvc.perform(get("/products/changes?since={token}", token)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.categories.length()").value(0));
+        result.andExpect(jsonPath("$.products.length()").value(1));
+        result.andExpect(jsonPath("$.products[0].id").value(2));
+        result.andExpect(jsonPath("$.products[0].price").value(2000.0));
+        result.andExpect(jsonPath("$.deleted.length()").value(1));
+        result.andExpect(jsonPath("$.deleted[0].type").value("PRODUCT"));
+        result.andExpect(jsonPath("$.deleted[0].id").value(existingId));
+    }
+
+    @Test
+    public void findChangesShouldReturnBadRequestWhenTokenIsMalformed() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(get("/products/changes?since=not-a-token")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findChangesShouldReturnGoneWhenTokenIsOlderThanTombstoneRetention() throws Exception {
+
+        Instant longAgo = Instant.parse("2000-01-01T00:00:00Z");
+        String token = new SyncToken(longAgo, SyncToken.PRODUCT, 1L, longAgo).encode();
+
+        ResultActions result =
+                mockMvc.perform(get("/products/changes?since={token}", token)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isGone());
+        result.andExpect(jsonPath("$.error").value("Resync required"));
+    }
+
+    @Test
+    public void importCsvShouldReportErrorsAndResumeAfterCommittedRows() throws Exception {
+        String csv = "name,description,price,categories\n"
+                + "Imported,\"Line one, with comma\",10.5,1|2\n"
+                + "Broken,,not-a-number,1\n";
+
+        ResultActions result =
+                mockMvc.perform(post("/products/import?importId=feed-1")
+                        .content(csv)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.created").value(1));
+        result.andExpect(jsonPath("$.failed").value(1));
+        result.andExpect(jsonPath("$.errors[0].row").value(2));
+        result.andExpect(jsonPath("$.committedRows").value(2));
+        result.andExpect(jsonPath("$.completed").value(true));
+
+        // Sending the same feed again skips the rows already committed
+        ResultActions resumed =
+                mockMvc.perform(post("/products/import?importId=feed-1")
+                        .content(csv)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        resumed.andExpect(status().isOk());
+        resumed.andExpect(jsonPath("$.skipped").value(2));
+        resumed.andExpect(jsonPath("$.created").value(0));
+    }
+
     @Test
     public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
         ProductDTO productDTO = Factory.createProductDTO();
@@ -89,4 +570,51 @@ public class ProductResourceIT {
 
         result.andExpect(status().isNotFound());
     }
+
+    @Test
+    public void patchShouldChangeOnlyGivenFieldsAndKeepCategories() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"price\": 2000.0}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+        result.andExpect(jsonPath("$.name").value("Smart TV"));
+        result.andExpect(jsonPath("$.price").value(2000.0));
+
+        mockMvc.perform(get("/products/{id}", 2L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.categories.length()").value(2));
+    }
+
+    @Test
+    public void patchShouldReplaceCategorySet() throws Exception {
+
+        // Product 2 is in categories 1 and 3: keeps 1, drops 3, adds 2
+        ResultActions result =
+                mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"categories\": [{\"id\": 1}, {\"id\": 2}]}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isOk());
+
+        mockMvc.perform(get("/products/{id}", 2L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.categories.length()").value(2))
+                .andExpect(jsonPath("$.categories[?(@.id == 2)]").exists())
+                .andExpect(jsonPath("$.categories[?(@.id == 3)]").doesNotExist());
+    }
+
+    @Test
+    public void patchShouldReturnBadRequestWhenCategoryDoesNotExist() throws Exception {
+
+        ResultActions result =
+                mockMvc.perform(patch("/products/{id}", 2L)
+                        .content("{\"categories\": [{\"id\": 1000}]}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        result.andExpect(status().isBadRequest());
+    }
 }
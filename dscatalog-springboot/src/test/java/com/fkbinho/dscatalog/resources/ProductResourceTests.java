@@ -2,7 +2,13 @@ package com.fkbinho.dscatalog.resources;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.services.ProductBatchService;
+import com.fkbinho.dscatalog.services.ProductCategoryIndexService;
+import com.fkbinho.dscatalog.services.ProductExportService;
+import com.fkbinho.dscatalog.services.ProductImportService;
+import com.fkbinho.dscatalog.services.ProductSearchService;
 import com.fkbinho.dscatalog.services.ProductService;
+import com.fkbinho.dscatalog.services.ProductSyncService;
 import com.fkbinho.dscatalog.services.exceptions.DatabaseException;
 import com.fkbinho.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.fkbinho.dscatalog.tests.Factory;
@@ -37,6 +43,27 @@ public class ProductResourceTests {
     @MockitoBean
     private ProductService service;
 
+    @MockitoBean
+    private ProductSearchService searchService;
+
+    @MockitoBean
+    private ProductCategoryIndexService categoryIndexService;
+
+    @MockitoBean
+    private ProductSyncService syncService;
+
+    @MockitoBean
+    private ProductBatchService batchService;
+
+    @MockitoBean
+    private ProductExportService exportService;
+
+    @MockitoBean
+    private ProductImportService importService;
+
+    @MockitoBean
+    private ProductPageCache pageCache;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
@@ -0,0 +1,101 @@
+package com.fkbinho.dscatalog.routing;
+
+import com.fkbinho.dscatalog.resources.ProductPageCacheFilter;
+import com.fkbinho.dscatalog.services.ProductService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own in-memory database so this context does not recreate the schema under the other tests;
+// two replicas point at it and a third cannot be reached
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingdb",
+        "dscatalog.datasource.routing.enabled=true",
+        "dscatalog.datasource.routing.replicas[0].url=jdbc:h2:mem:routingdb",
+        "dscatalog.datasource.routing.replicas[1].url=jdbc:h2:mem:routingdb",
+        "dscatalog.datasource.routing.replicas[2].url=jdbc:h2:tcp://localhost:1/unreachable",
+        "dscatalog.datasource.routing.connection-timeout=250ms",
+        "dscatalog.datasource.routing.health-check-interval=1h",
+        "dscatalog.datasource.routing.pin-after-write=5s"})
+@AutoConfigureMockMvc
+public class ReadWriteRoutingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void readOnlyTransactionsShouldBeBalancedAcrossHealthyReplicas() {
+        Map<String, Long> before = replicas().servedCounts();
+
+        for (int i = 0; i < 6; i++) {
+            productService.findById(1L);
+        }
+        Map<String, Long> after = replicas().servedCounts();
+
+        // The unreachable replica is marked unhealthy and its turns go to the next healthy one
+        assertFalse(replicas().health().get("replica-2"));
+        assertTrue(after.get("replica-0") - before.get("replica-0") >= 2);
+        assertTrue(after.get("replica-1") - before.get("replica-1") >= 2);
+        assertEquals(before.get(ReplicaDataSource.PRIMARY), after.get(ReplicaDataSource.PRIMARY));
+    }
+
+    @Test
+    public void readsShouldStayOnPrimaryAfterClientWrite() throws Exception {
+        MvcResult write = mockMvc.perform(delete("/products/{id}", 1000L))
+                .andExpect(status().isNotFound())
+                .andExpect(cookie().exists(PrimaryPinFilter.COOKIE))
+                .andReturn();
+        Cookie pin = write.getResponse().getCookie(PrimaryPinFilter.COOKIE);
+
+        Map<String, Long> before = replicas().servedCounts();
+        mockMvc.perform(get("/products/{id}", 1L).cookie(pin))
+                .andExpect(status().isOk());
+        Map<String, Long> after = replicas().servedCounts();
+
+        assertEquals(before.get(ReplicaDataSource.PRIMARY) + 1, after.get(ReplicaDataSource.PRIMARY));
+        assertEquals(before.get("replica-0"), after.get("replica-0"));
+        assertEquals(before.get("replica-1"), after.get("replica-1"));
+    }
+
+    @Test
+    public void productPageCacheShouldBeFilledFromPrimary() throws Exception {
+        Map<String, Long> before = replicas().servedCounts();
+
+        mockMvc.perform(get("/products?page=0&size=13").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ProductPageCacheFilter.CACHE_HEADER, "MISS"));
+        Map<String, Long> after = replicas().servedCounts();
+
+        // Verify that the page that went into the cache was not read from a possibly lagging replica
+        assertTrue(after.get(ReplicaDataSource.PRIMARY) > before.get(ReplicaDataSource.PRIMARY));
+        assertEquals(before.get("replica-0"), after.get("replica-0"));
+        assertEquals(before.get("replica-1"), after.get("replica-1"));
+    }
+
+    private ReplicaDataSource replicas() {
+        return ((ReadWriteRoutingDataSource) dataSource).getReplicas();
+    }
+}
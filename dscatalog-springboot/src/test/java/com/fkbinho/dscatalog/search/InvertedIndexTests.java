@@ -0,0 +1,94 @@
+package com.fkbinho.dscatalog.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class InvertedIndexTests {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new InvertedIndex();
+        index.put(1L, List.of("smart", "tv", "led"));
+        index.put(2L, List.of("notebook", "gamer", "led", "keyboard"));
+        index.put(3L, List.of("pc", "gamer", "gamer"));
+    }
+
+    @Test
+    public void searchShouldRankDocumentsWithMoreOccurrencesFirst() {
+        List<ScoredDocument> result = index.search(List.of("gamer"), 10);
+
+        // Verify that only documents with the term match and the higher term frequency wins
+        Assertions.assertEquals(List.of(3L, 2L), ids(result));
+        Assertions.assertTrue(result.get(0).score() > result.get(1).score());
+    }
+
+    @Test
+    public void searchShouldRankRareTermsAboveCommonOnes() {
+        index.put(4L, List.of("led", "lamp"));
+
+        List<ScoredDocument> result = index.search(List.of("led", "tv"), 10);
+
+        // Verify that the document with the rare term "tv" outranks those matching only "led"
+        Assertions.assertEquals(1L, result.get(0).id());
+        Assertions.assertEquals(3, result.size());
+    }
+
+    @Test
+    public void searchShouldPreferShorterDocumentsOnEqualFrequency() {
+        List<ScoredDocument> result = index.search(List.of("led"), 10);
+
+        // Verify that BM25 length normalization favors the shorter of two single occurrences
+        Assertions.assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    public void searchShouldKeepOnlyTopKAndBreakTiesByLowerId() {
+        index.put(4L, List.of("pc", "gamer", "gamer"));
+
+        List<ScoredDocument> result = index.search(List.of("gamer"), 2);
+
+        // Verify that the heap keeps the best K and equal scores are ordered by id
+        Assertions.assertEquals(List.of(3L, 4L), ids(result));
+    }
+
+    @Test
+    public void putShouldReplaceTermsWhenDocumentIsUpdated() {
+        index.put(1L, List.of("monitor", "led"));
+
+        // Verify that the old terms no longer match and the new ones do
+        Assertions.assertTrue(index.search(List.of("tv"), 10).isEmpty());
+        Assertions.assertEquals(List.of(1L), ids(index.search(List.of("monitor"), 10)));
+        Assertions.assertEquals(3, index.size());
+    }
+
+    @Test
+    public void removeShouldDropDocumentFromEveryPosting() {
+        index.remove(3L);
+
+        // Verify that the removed document matches no term and the others are unaffected
+        Assertions.assertEquals(List.of(2L), ids(index.search(List.of("gamer", "pc"), 10)));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void removeShouldDoNothingWhenIdDoesNotExist() {
+        index.remove(1000L);
+
+        Assertions.assertEquals(3, index.size());
+    }
+
+    @Test
+    public void searchShouldReturnEmptyListWhenNoTermMatches() {
+        Assertions.assertTrue(index.search(List.of("phone"), 10).isEmpty());
+        Assertions.assertTrue(new InvertedIndex().search(List.of("gamer"), 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<ScoredDocument> result) {
+        return result.stream().map(ScoredDocument::id).toList();
+    }
+}
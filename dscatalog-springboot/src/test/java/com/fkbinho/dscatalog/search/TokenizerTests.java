@@ -0,0 +1,42 @@
+package com.fkbinho.dscatalog.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TokenizerTests {
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    @Test
+    public void tokenizeShouldLowerCaseAndStripAccents() {
+        List<String> terms = tokenizer.tokenize("Câmera FOTOGRÁFICA Ação");
+
+        // Verify that terms are lower-cased and accent-free so queries match either spelling
+        Assertions.assertEquals(List.of("camera", "fotografica", "acao"), terms);
+    }
+
+    @Test
+    public void tokenizeShouldSplitOnPunctuationAndKeepDigits() {
+        List<String> terms = tokenizer.tokenize("PC-Gamer, 16GB RAM/i7");
+
+        // Verify that anything other than letters and digits separates terms
+        Assertions.assertEquals(List.of("pc", "gamer", "16gb", "ram", "i7"), terms);
+    }
+
+    @Test
+    public void tokenizeShouldDropStopWordsAndSingleCharacters() {
+        List<String> terms = tokenizer.tokenize("The Lord of the Rings e o Hobbit x");
+
+        // Verify that stop words in English and Portuguese and one-letter terms are skipped
+        Assertions.assertEquals(List.of("lord", "rings", "hobbit"), terms);
+    }
+
+    @Test
+    public void tokenizeShouldReturnEmptyListWhenTextIsNullOrBlank() {
+        Assertions.assertTrue(tokenizer.tokenize(null).isEmpty());
+        Assertions.assertTrue(tokenizer.tokenize("").isEmpty());
+        Assertions.assertTrue(tokenizer.tokenize("  ,; ").isEmpty());
+    }
+}
@@ -1,9 +1,28 @@
 package com.fkbinho.dscatalog.services;
 
 
+import com.fkbinho.dscatalog.dto.CategoryDTO;
+import com.fkbinho.dscatalog.dto.ChangeEventDTO;
+import com.fkbinho.dscatalog.dto.CursorPageDTO;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.ProductVersionDTO;
+import com.fkbinho.dscatalog.dto.SliceDTO;
+import com.fkbinho.dscatalog.entities.Category;
+import com.fkbinho.dscatalog.entities.Product;
+import com.fkbinho.dscatalog.entities.Tombstone;
+import com.fkbinho.dscatalog.repositories.CategoryRepository;
 import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.repositories.TombstoneRepository;
+import com.fkbinho.dscatalog.resources.ETags;
+import com.fkbinho.dscatalog.services.events.CategoryChangedEvent;
+import com.fkbinho.dscatalog.services.events.ProductChangedEvent;
 import com.fkbinho.dscatalog.services.exceptions.ResourceNotFoundException;
+import com.fkbinho.dscatalog.services.exceptions.ServiceUnavailableException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +33,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
@@ -26,6 +55,30 @@ public class ProductServiceIT {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private ChangeFeedService changeFeed;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ProductSyncService syncService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private long existingId;
     private long nonExistingId;
     private long countTotalProducts;
@@ -86,6 +139,91 @@ public class ProductServiceIT {
         Assertions.assertEquals("PC Gamer Alfa", result.getContent().get(2).getName());
     }
 
+    @Test
+    public void findAllSlicedShouldReturnSliceWithoutTotalWhenCountIsNone() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        SliceDTO<ProductDTO> result = service.findAllSliced(pageRequest, CountMode.NONE);
+
+        // Verify that the slice knows about the next page but skips the total count
+        Assertions.assertEquals(10, result.getContent().size());
+        Assertions.assertTrue(result.getHasNext());
+        Assertions.assertNull(result.getTotalElements());
+    }
+
+    @Test
+    public void findAllSlicedShouldReturnTotalWhenCountIsEstimate() {
+        PageRequest pageRequest = PageRequest.of(2, 10);
+
+        SliceDTO<ProductDTO> result = service.findAllSliced(pageRequest, CountMode.ESTIMATE);
+
+        // Verify that the last slice has no next page and carries the cached total
+        Assertions.assertFalse(result.getHasNext());
+        Assertions.assertEquals(countTotalProducts, result.getTotalElements());
+        Assertions.assertFalse(result.getTotalExact());
+    }
+
+    @Test
+    public void findAllSlicedShouldReloadEstimateAfterDelete() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        countCache.invalidate(CountCache.PRODUCTS);
+        service.findAllSliced(pageRequest, CountMode.ESTIMATE);
+
+        service.delete(existingId);
+        // The test transaction never commits, so apply the after-commit listener directly
+        countCache.onProductChanged(ProductChangedEvent.deleted(existingId));
+        SliceDTO<ProductDTO> result = service.findAllSliced(pageRequest, CountMode.ESTIMATE);
+        countCache.invalidate(CountCache.PRODUCTS);
+
+        // Verify that the cached total was dropped and counted again without the deleted product
+        Assertions.assertEquals(countTotalProducts - 1, result.getTotalElements());
+    }
+
+    @Test
+    public void findAllByCursorShouldContinueAfterLastRowWhenSortByName() {
+        CursorPageDTO<ProductDTO> first = service.findAllByCursor(null, "name", 2, false);
+
+        // Verify that the first page has the expected products and a cursor to the next one
+        Assertions.assertEquals("Macbook Pro", first.getContent().get(0).getName());
+        Assertions.assertEquals("PC Gamer", first.getContent().get(1).getName());
+        Assertions.assertTrue(first.getHasNext());
+        Assertions.assertNull(first.getTotalElements());
+
+        CursorPageDTO<ProductDTO> second = service.findAllByCursor(first.getNextCursor(), "name", 2, true);
+
+        // Verify that the second page starts right after the last product of the first one
+        Assertions.assertEquals("PC Gamer Alfa", second.getContent().get(0).getName());
+        Assertions.assertEquals(countTotalProducts, second.getTotalElements());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnLastPageWithoutNextCursor() {
+        CursorPageDTO<ProductDTO> result = service.findAllByCursor(null, "id", 100, false);
+
+        // Verify that all products fit in one page and there is no next cursor
+        Assertions.assertEquals(countTotalProducts, result.getContent().size());
+        Assertions.assertFalse(result.getHasNext());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void findAllByCursorShouldReturnNullNamesOnceAfterNamedCategories() {
+        categoryRepository.findById(1L).get().setName(null);
+        categoryRepository.findById(3L).get().setName(null);
+        categoryRepository.flush();
+
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPageDTO<CategoryDTO> page = categoryService.findAllByCursor(after, "name", 2, false);
+            page.getContent().forEach(dto -> ids.add(dto.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        // Verify that every category is returned exactly once and the unnamed ones come last, by id
+        assertEquals(List.of(2L, 1L, 3L), ids);
+    }
+
     @Test
     public void deleteShouldDeleteResourceWhenIdExists() throws Exception {
         service.delete(existingId);
@@ -94,6 +232,63 @@ public class ProductServiceIT {
         assertEquals(countTotalProducts - 1, repository.count());
     }
 
+    @Test
+    public void deleteAllShouldDeleteOnlyExistingProducts() throws Exception {
+        int deleted = service.deleteAll(List.of(existingId, 2L, nonExistingId));
+
+        // Verify that the two existing products were deleted and the missing id was ignored
+        assertEquals(2, deleted);
+        assertEquals(countTotalProducts - 2, repository.count());
+        // Verify that only the deleted products were recorded for delta sync
+        assertEquals(List.of(existingId, 2L), tombstoneRepository.findAll().stream()
+                .map(Tombstone::getEntityId)
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    public void pruneTombstonesShouldKeepTombstonesInsideRetention() {
+
+        service.delete(existingId);
+        tombstoneRepository.flush();
+
+        assertEquals(0, syncService.pruneTombstones());
+        assertEquals(1, tombstoneRepository.count());
+
+        assertEquals(1, tombstoneRepository.deleteDeletedBefore(Instant.now().plusSeconds(1)));
+        assertEquals(0, tombstoneRepository.count());
+    }
+
+    @Test
+    public void categoryLookupOnProductWriteShouldBeServedFromSecondLevelCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        categoryRepository.findAllByIdCached(List.of(2L));
+        entityManager.clear();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        List<Category> found = categoryRepository.findAllByIdCached(List.of(2L));
+
+        assertEquals(1, found.size());
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findVersionETagShouldMatchProductETagAndTellCategorySetsWithTheSameVersionSumApart() {
+        ProductVersionDTO version = service.findVersion(2L);
+
+        assertEquals(ETags.of(service.findById(2L)), ETags.of(version));
+
+        ProductVersionDTO a = new ProductVersionDTO(version.getVersion());
+        a.getCategoryVersions().put(1L, 2L);
+        a.getCategoryVersions().put(3L, 1L);
+        ProductVersionDTO b = new ProductVersionDTO(version.getVersion());
+        b.getCategoryVersions().put(1L, 1L);
+        b.getCategoryVersions().put(3L, 2L);
+        Assertions.assertNotEquals(ETags.of(a), ETags.of(b));
+    }
+
     @Test
     public void deleteShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
 
@@ -103,4 +298,100 @@ public class ProductServiceIT {
                 () -> service.delete(nonExistingId)
         );
     }
+
+    @Test
+    public void searchShouldIgnoreEventsOlderThanTheAppliedVersionOrDelete() {
+        ProductSearchService search = new ProductSearchService();
+        Product entity = repository.findById(existingId).orElseThrow();
+        ProductChangedEvent stale = ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity);
+        entity.setName("Zyxwv Phone");
+        repository.flush();
+        ProductChangedEvent newer = ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity);
+
+        // Delivered out of order: the older state must not win
+        search.onProductChanged(newer);
+        search.onProductChanged(stale);
+
+        assertEquals(1, search.search("zyxwv", 10).size());
+        assertEquals(0, search.search("lord", 10).size());
+
+        search.onProductChanged(ProductChangedEvent.deleted(existingId));
+        search.onProductChanged(newer);
+
+        assertEquals(0, search.search("zyxwv", 10).size());
+    }
+
+    @Test
+    public void categoryIndexShouldIgnoreEventsOlderThanTheAppliedVersionOrDelete() {
+        ProductCategoryIndexService categoryIndex = new ProductCategoryIndexService();
+        Product entity = repository.findById(existingId).orElseThrow();
+        ProductChangedEvent stale = ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity);
+        entity.getCategories().clear();
+        entity.setName("Uncategorized");
+        repository.flush();
+        ProductChangedEvent newer = ProductChangedEvent.of(ProductChangedEvent.Operation.UPDATE, entity);
+
+        categoryIndex.onProductChanged(newer);
+        categoryIndex.onProductChanged(stale);
+
+        Map<Long, Long> counts = categoryIndex.countByCategory(List.of(), List.of(), List.of());
+        assertEquals(0L, counts.getOrDefault(2L, 0L));
+
+        categoryIndex = new ProductCategoryIndexService();
+        categoryIndex.onProductChanged(ProductChangedEvent.deleted(existingId));
+        categoryIndex.onProductChanged(stale);
+
+        counts = categoryIndex.countByCategory(List.of(), List.of(), List.of());
+        assertEquals(0L, counts.getOrDefault(2L, 0L));
+    }
+
+    @Test
+    public void changeFeedShouldReturnCommittedEventsFromOffset() {
+        String from = changeFeed.nextOffset();
+
+        // The listeners run after commit; call them directly since this test never commits
+        changeFeed.onProductChanged(ProductChangedEvent.deleted(existingId));
+        changeFeed.onCategoryChanged(CategoryChangedEvent.deleted(3L));
+
+        List<ChangeEventDTO> events = changeFeed.read(from, 10);
+
+        assertEquals(2, events.size());
+        assertEquals(from, events.get(0).getOffset());
+        assertEquals(ChangeFeedService.TYPE_PRODUCT, events.get(0).getType());
+        assertEquals("DELETE", events.get(0).getOperation());
+        assertEquals(ChangeFeedService.TYPE_CATEGORY, events.get(1).getType());
+        assertEquals(3L, events.get(1).getId());
+    }
+
+    @Test
+    public void changeFeedShouldNotAdmitMoreConcurrentSubscribersThanTheCap() throws Exception {
+        ChangeFeedService feed = new ChangeFeedService(16, 5, 10, Duration.ofSeconds(1), Duration.ofMinutes(1));
+        ExecutorService clients = Executors.newFixedThreadPool(50);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                attempts.add(clients.submit(() -> {
+                    start.await();
+                    try {
+                        feed.subscribe(null, null);
+                        return true;
+                    } catch (ServiceUnavailableException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int admitted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                admitted += attempt.get() ? 1 : 0;
+            }
+
+            // Verify that exactly the configured number of subscribers got a slot
+            assertEquals(5, admitted);
+        } finally {
+            clients.shutdownNow();
+            feed.shutdown();
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package com.fkbinho.dscatalog.services;
 
+import com.fkbinho.dscatalog.dto.CategoryDTO;
 import com.fkbinho.dscatalog.dto.ProductDTO;
+import com.fkbinho.dscatalog.dto.ProductPatchDTO;
 import com.fkbinho.dscatalog.entities.Category;
 import com.fkbinho.dscatalog.entities.Product;
 import com.fkbinho.dscatalog.repositories.CategoryRepository;
 import com.fkbinho.dscatalog.repositories.ProductRepository;
+import com.fkbinho.dscatalog.repositories.TombstoneRepository;
 import com.fkbinho.dscatalog.services.exceptions.DatabaseException;
+import com.fkbinho.dscatalog.services.exceptions.InvalidPayloadException;
 import com.fkbinho.dscatalog.services.exceptions.ResourceNotFoundException;
 import com.fkbinho.dscatalog.tests.Factory;
 import jakarta.persistence.EntityNotFoundException;
@@ -17,6 +21,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -39,6 +44,12 @@ public class ProductServiceTests {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
     private long existingId;
     private long nonExistingId;
     private long dependentId;
@@ -66,12 +77,12 @@ public class ProductServiceTests {
         Mockito.when(repository.getReferenceById(nonExistingId)).thenThrow(EntityNotFoundException.class);
 
         // Mock the behavior of the category repository to return a category
-        // when getReferenceById is called with an existing ID
-        Mockito.when(categoryRepository.getReferenceById((existingId))).thenReturn(Factory.createCategory());
+        // when findAllByIdCached is called with an existing ID
+        Mockito.when(categoryRepository.findAllByIdCached(List.of(existingId))).thenReturn(List.of(Factory.createCategory()));
 
-        // Mock the behavior of the category repository to throw EntityNotFoundException
-        // when getReferenceById is called with a non-existing ID
-        Mockito.when(categoryRepository.getReferenceById((nonExistingId))).thenThrow(EntityNotFoundException.class);
+        // Mock the behavior of the category repository to return nothing
+        // when findAllByIdCached is called with a non-existing ID
+        Mockito.when(categoryRepository.findAllByIdCached(List.of(nonExistingId))).thenReturn(List.of());
 
         // Mock the behavior of the repository to return a list of products
         // when findAll is called with any Pageable
@@ -89,23 +100,17 @@ public class ProductServiceTests {
         // when findById is called with a non-existing ID
         Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
 
-        // Mock the behavior of the repository to do nothing
-        // when deleteById is called
-        Mockito.doNothing().when(repository).deleteById(existingId);
+        // Mock the behavior of the repository to report one deleted row
+        // when deleteProductById is called with an existing ID
+        Mockito.when(repository.deleteProductById(existingId)).thenReturn(1);
+
+        // Mock the behavior of the repository to report no deleted rows
+        // when deleteProductById is called with a non-existing ID
+        Mockito.when(repository.deleteProductById(nonExistingId)).thenReturn(0);
 
         // Mock the behavior of the repository to throw DataIntegrityViolationException
-        // when deleteById is called with a dependent ID
-        Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteById(dependentId);
-
-        // Mock the behavior of the repository to return true
-        // when checking for an existing ID
-        Mockito.when(repository.existsById(existingId)).thenReturn(true);
-        // Mock the behavior of the repository to return false
-        // when checking for a non-existing ID
-        Mockito.when(repository.existsById(nonExistingId)).thenReturn(false);
-        // Mock the behavior of the repository to return true
-        // when checking for a dependent ID
-        Mockito.when(repository.existsById(dependentId)).thenReturn(true);
+        // when deleteProductById is called with a dependent ID
+        Mockito.when(repository.deleteProductById(dependentId)).thenThrow(DataIntegrityViolationException.class);
 
     }
 
@@ -124,6 +129,40 @@ public class ProductServiceTests {
         Assertions.assertNotNull(result);
     }
 
+    @Test
+    public void patchShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
+        Assertions.assertThrows(
+                ResourceNotFoundException.class,
+                () -> service.patch(nonExistingId, new ProductPatchDTO(), null)
+        );
+    }
+
+    @Test
+    public void patchShouldKeepCategoriesWhenCategoriesAreAbsent() {
+        ProductPatchDTO patch = new ProductPatchDTO();
+        patch.setPrice(900.0);
+
+        ProductDTO result = service.patch(existingId, patch, null);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(900.0, product.getPrice());
+        Assertions.assertEquals(1, product.getCategories().size());
+        Mockito.verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    public void patchShouldLoadOnlyAddedCategoriesInOneQuery() {
+        // The product is already in category 1, so only category 2 is looked up
+        ProductPatchDTO patch = new ProductPatchDTO();
+        patch.setCategories(List.of(new CategoryDTO(existingId, null), new CategoryDTO(nonExistingId, null)));
+
+        Assertions.assertThrows(
+                InvalidPayloadException.class,
+                () -> service.patch(existingId, patch, null)
+        );
+        Mockito.verify(categoryRepository, Mockito.times(1)).findAllByIdCached(List.of(nonExistingId));
+    }
+
     @Test
     public void findByIdShouldThrowResourceNotFoundExceptionWhenIdDoesNotExist() {
         Assertions.assertThrows(
@@ -171,7 +210,11 @@ public class ProductServiceTests {
                 () -> service.delete(existingId)
         );
 
-        // Verify that the repository's deleteById method was called with the correct ID
-        Mockito.verify(repository).deleteById(existingId);
+        // Verify that the repository's single-statement delete was called with the correct ID
+        Mockito.verify(repository).deleteProductById(existingId);
+
+        // Verify that no existence check or entity load happened before the delete
+        Mockito.verify(repository, Mockito.never()).existsById(existingId);
+        Mockito.verify(repository, Mockito.never()).findById(existingId);
     }
 }